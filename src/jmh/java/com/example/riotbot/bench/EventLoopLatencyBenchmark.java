@@ -0,0 +1,129 @@
+package com.example.riotbot.bench;
+
+import com.example.riotbot.dto.MatchSummary;
+import com.example.riotbot.service.MatchSummaryParser;
+import com.example.riotbot.service.WorkSchedulers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test for the execution modes of {@link WorkSchedulers}: how long a
+ * trivial task waits for the event loop while the loop is also driving a
+ * steady stream of scout-like stages, each parsing a captured match (CPU)
+ * and doing a short blocking read (I/O).
+ *
+ * <ul>
+ * <li>{@code inline}: both stages run on the event loop, as before;</li>
+ * <li>{@code platform} / {@code virtual}: both are handed to the matching
+ * WorkSchedulers mode and the result hops back to the loop.</li>
+ * </ul>
+ *
+ * Compare the percentiles of {@code probe}: inline, every probe queues behind
+ * the parsing and blocking work (p50 of hundreds of milliseconds at the
+ * defaults), while the offloaded modes keep the p50 in the tens of
+ * microseconds and the tail bounded by CPU contention only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventLoopLatencyBenchmark {
+
+    @Param({"inline", "platform", "virtual"})
+    public String mode;
+
+    /** Scout stages in flight at once. */
+    @Param({"64"})
+    public int concurrency;
+
+    /** Simulated blocking read per stage (a match store lookup on a slow disk). */
+    @Param({"2"})
+    public int blockingMillis;
+
+    private Scheduler eventLoop;
+    private WorkSchedulers workSchedulers;
+    private MatchSummaryParser parser;
+    private byte[] payload;
+    private Disposable load;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        eventLoop = Schedulers.newSingle("event-loop");
+        if (!mode.equals("inline")) {
+            WorkSchedulers.Mode workMode = WorkSchedulers.Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+            workSchedulers = new WorkSchedulers(workMode, 256, 100_000);
+        }
+        parser = new MatchSummaryParser(new ObjectMapper().getFactory());
+        payload = Fixtures.load("match-v5.json");
+        load = Flux.range(0, Integer.MAX_VALUE)
+                .flatMap(i -> stage(), concurrency)
+                .subscribe();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        load.dispose();
+        if (workSchedulers != null) {
+            workSchedulers.close();
+        }
+        eventLoop.dispose();
+    }
+
+    @Benchmark
+    public Long probe() {
+        return Mono.fromCallable(System::nanoTime)
+                .subscribeOn(eventLoop)
+                .block();
+    }
+
+    private Mono<MatchSummary> stage() {
+        Mono<byte[]> received = Mono.just(payload).publishOn(eventLoop);
+        if (workSchedulers == null) {
+            return received.map(this::parse).map(this::blockingRead);
+        }
+        return received
+                .publishOn(workSchedulers.cpu())
+                .map(this::parse)
+                .publishOn(workSchedulers.blocking())
+                .map(this::blockingRead)
+                .publishOn(eventLoop);
+    }
+
+    private MatchSummary parse(byte[] json) {
+        try {
+            return parser.parse(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MatchSummary blockingRead(MatchSummary match) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(blockingMillis));
+        return match;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.riotbot.bench;
+
+import com.example.riotbot.dto.MatchDto;
+import com.example.riotbot.dto.MatchSummary;
+import com.example.riotbot.service.MatchSummaryParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full {@link MatchDto} databinding (what {@code bodyToMono(MatchDto.class)}
+ * does) versus the streaming {@link MatchSummaryParser} on a captured
+ * match-v5 payload. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm} for bytes allocated per match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchParseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private MatchSummaryParser parser;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        parser = new MatchSummaryParser(objectMapper.getFactory());
+        payload = Fixtures.load("match-v5.json");
+    }
+
+    @Benchmark
+    public MatchDto databindMatchDto() throws IOException {
+        return objectMapper.readValue(payload, MatchDto.class);
+    }
+
+    @Benchmark
+    public MatchSummary streamMatchSummary() throws IOException {
+        return parser.parse(payload);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.riotbot.command;
+
+import com.example.riotbot.bench.Fixtures;
+import com.example.riotbot.dto.AccountDto;
+import com.example.riotbot.dto.CurrentGameInfo;
+import com.example.riotbot.dto.MatchSummary;
+import com.example.riotbot.dto.SummonerDto;
+import com.example.riotbot.service.MatchSummaryParser;
+import com.example.riotbot.service.StaticDataService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import discord4j.core.spec.EmbedCreateSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU side of a /scout reply: win/loss aggregation over each enemy's
+ * last 10 matches and building the live and history embeds. Inputs are a
+ * captured spectator-v5 game and match-v5 payload; no Discord or Riot
+ * connection is made. Lives in the command package to reach the
+ * package-private builders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoutRenderBenchmark {
+
+    private static final int HISTORY_SIZE = 10;
+
+    private ScoutCommand command;
+    private List<CurrentGameInfo.CurrentGameParticipant> enemies;
+    private List<MatchSummary> history;
+    private ScoutCommand.HistoryResult historyResult;
+    private ScoutCommand.LiveResult liveResult;
+
+    @Setup
+    public void setup() throws IOException {
+        // The embed builders only read static data (here the initial version, as
+        // before the first Data Dragon load); no other collaborator is called
+        command = new ScoutCommand(null, null, null, null, null,
+                new StaticDataService(null, new ObjectMapper(), "15.24.1", Duration.ofHours(1),
+                        "https://ddragon.leagueoflegends.com/cdn", "en_US", 1), null);
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        CurrentGameInfo game = objectMapper.readValue(Fixtures.load("spectator-v5.json"), CurrentGameInfo.class);
+        CurrentGameInfo.CurrentGameParticipant user = game.participants().get(0);
+        enemies = game.participants().stream()
+                .filter(p -> p.teamId() != user.teamId())
+                .toList();
+
+        MatchSummaryParser parser = new MatchSummaryParser(objectMapper.getFactory());
+        byte[] matchPayload = Fixtures.load("match-v5.json");
+        history = new ArrayList<>(HISTORY_SIZE);
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            history.add(parser.parse(matchPayload));
+        }
+
+        AccountDto account = new AccountDto(user.puuid(), "Player0", "NA1");
+        SummonerDto summoner = new SummonerDto(user.summonerId(), "account", user.puuid(), "Player0", 4568,
+                1760780000000L, 312);
+        historyResult = new ScoutCommand.HistoryResult(account, summoner, "GOLD II", history.get(0));
+        liveResult = new ScoutCommand.LiveResult(account, "GOLD II", analyzeEnemies());
+    }
+
+    @Benchmark
+    public List<ScoutCommand.EnemyStats> analyzeEnemies() {
+        List<ScoutCommand.EnemyStats> stats = new ArrayList<>(enemies.size());
+        for (CurrentGameInfo.CurrentGameParticipant enemy : enemies) {
+            stats.add(command.analyzeEnemy(enemy, history));
+        }
+        return stats;
+    }
+
+    @Benchmark
+    public EmbedCreateSpec buildLiveEmbed() {
+        return command.buildLiveEmbed(liveResult);
+    }
+
+    @Benchmark
+    public EmbedCreateSpec buildHistoryEmbed() {
+        return command.buildHistoryEmbed(historyResult);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.bench.Fixtures;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON string array parsing behind {@code getMatchIds} (a captured list of
+ * 100 match IDs, the largest page match-v5 returns) and
+ * {@code getLatestDDragonVersion} (a versions.json of ~400 entries):
+ * the former replace/split parsing of the decoded body against
+ * {@link JsonStringArrayParser} reading the raw bytes. Run with
+ * {@code -prof gc} to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchIdsParseBenchmark {
+
+    private final JsonStringArrayParser parser = new JsonStringArrayParser(new JsonFactory());
+    private byte[] matchIds;
+    private byte[] versions;
+
+    @Setup
+    public void setup() {
+        matchIds = Fixtures.load("match-ids.json");
+        versions = Fixtures.load("ddragon-versions.json");
+    }
+
+    @Benchmark
+    public List<String> matchIdsReplaceSplit() {
+        // The body was decoded to a String first
+        String clean = new String(matchIds, StandardCharsets.UTF_8)
+                .replace("[", "").replace("]", "").replace("\"", "").trim();
+        return clean.isEmpty() ? List.of() : Arrays.asList(clean.split(","));
+    }
+
+    @Benchmark
+    public List<String> matchIdsStreaming() throws IOException {
+        // As in RiotClient, read through the body buffer's InputStream view
+        return parser.parseAll(new ByteArrayInputStream(matchIds));
+    }
+
+    @Benchmark
+    public String versionsReplaceSplit() {
+        String clean = new String(versions, StandardCharsets.UTF_8)
+                .replace("[", "").replace("]", "").replace("\"", "").trim();
+        return clean.split(",")[0];
+    }
+
+    @Benchmark
+    public String versionsStreaming() throws IOException {
+        return parser.parseFirst(new ByteArrayInputStream(versions));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.bench.Fixtures;
+import com.example.riotbot.dto.MatchSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PlayerStats} with a full window: reading a player's aggregates, and
+ * folding in one newer match (which evicts the oldest). Matches are copies
+ * of the captured match-v5 payload with distinct IDs and end times, played
+ * on a rotating set of champions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerStatsBenchmark {
+
+    private static final String[] CHAMPIONS = {"Ahri", "Zed", "Syndra", "Orianna", "Viktor", "Sylas"};
+
+    @Param({"20", "100"})
+    public int matches;
+
+    private String puuid;
+    private PlayerStats stats;
+    private MatchSummary[] incoming;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        MatchSummary template = new MatchSummaryParser(new ObjectMapper().getFactory())
+                .parse(Fixtures.load("match-v5.json"));
+        puuid = template.puuid(0);
+        stats = new PlayerStats(matches);
+        for (int i = 0; i < matches; i++) {
+            stats.add(copy(template, i), puuid);
+        }
+        // Enough newer matches that add() never sees a repeat within a run
+        incoming = new MatchSummary[1 << 16];
+        for (int i = 0; i < incoming.length; i++) {
+            incoming[i] = copy(template, matches + i);
+        }
+    }
+
+    @Benchmark
+    public PlayerStats.Snapshot snapshot() {
+        return stats.snapshot();
+    }
+
+    @Benchmark
+    public boolean addNewerMatch() {
+        if (next == incoming.length) {
+            // Start over with a fresh window so every add still evicts
+            next = 0;
+            try {
+                setup();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return stats.add(incoming[next++], puuid);
+    }
+
+    private static MatchSummary copy(MatchSummary m, int n) {
+        int size = m.participantCount();
+        String[] puuids = new String[size];
+        String[] championNames = new String[size];
+        int[] teamIds = new int[size], kills = new int[size], deaths = new int[size], assists = new int[size];
+        int[] damageDealt = new int[size], damageTaken = new int[size], minions = new int[size];
+        int[] neutral = new int[size], gold = new int[size], vision = new int[size], icon = new int[size];
+        long winMask = 0;
+        for (int i = 0; i < size; i++) {
+            puuids[i] = m.puuid(i);
+            championNames[i] = i == 0 ? CHAMPIONS[n % CHAMPIONS.length] : m.championName(i);
+            teamIds[i] = m.teamId(i);
+            kills[i] = m.kills(i);
+            deaths[i] = m.deaths(i);
+            assists[i] = m.assists(i);
+            damageDealt[i] = m.damageDealt(i);
+            damageTaken[i] = m.damageTaken(i);
+            minions[i] = m.totalCs(i);
+            gold[i] = m.goldEarned(i);
+            vision[i] = m.visionScore(i);
+            icon[i] = m.profileIcon(i);
+            // Alternate the result so the win counters move too
+            if (m.won(i) != (n % 2 == 0)) {
+                winMask |= 1L << i;
+            }
+        }
+        return new MatchSummary(m.matchId() + "-" + n, m.gameEndTimestamp() + n * 60_000L,
+                m.gameDurationSeconds(), m.gameMode(), puuids, teamIds, championNames, kills, deaths, assists,
+                damageDealt, damageTaken, minions, neutral, gold, vision, icon, winMask);
+    }
+}
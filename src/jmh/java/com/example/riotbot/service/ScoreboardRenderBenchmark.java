@@ -0,0 +1,81 @@
+package com.example.riotbot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One scoreboard frame from ready tiles: drawing ten rows and encoding the
+ * PNG, as {@link ScoreboardRenderer} does on the CPU scheduler for each
+ * finished live scout. Icons are synthetic tiles of champion-icon size; no
+ * Data Dragon connection is made.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreboardRenderBenchmark {
+
+    private static final String[] RANKS = {"GOLD II (54 LP)", "PLATINUM IV (12 LP)", null, "EMERALD I (87 LP)"};
+
+    private ScoreboardRenderer renderer;
+    private ScoreboardRenderer.Scoreboard board;
+    private Map<Integer, BufferedImage> icons;
+
+    @Setup
+    public void setup() {
+        renderer = new ScoreboardRenderer(null, null, new SimpleMeterRegistry(), 1, 1);
+        List<ScoreboardRenderer.Row> rows = new ArrayList<>();
+        icons = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            int championId = 100 + i;
+            icons.put(championId, tile(championId));
+            rows.add(new ScoreboardRenderer.Row(i < 5 ? 100 : 200, championId, "Summoner Number " + i + "#EUW",
+                    RANKS[i % RANKS.length], 3 + i % 5, 7 - i % 5, i != 3, i == 2));
+        }
+        board = new ScoreboardRenderer.Scoreboard(1L, "Live CLASSIC • Summoner Number 2 (GOLD II (54 LP))",
+                List.copyOf(rows));
+    }
+
+    @Benchmark
+    public byte[] draw() {
+        return renderer.draw(board, icons);
+    }
+
+    /** A gradient, so the encoder has roughly an icon's worth of detail to compress. */
+    private static BufferedImage tile(int seed) {
+        BufferedImage tile = new BufferedImage(ScoreboardRenderer.TILE, ScoreboardRenderer.TILE,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = tile.createGraphics();
+        try {
+            for (int y = 0; y < ScoreboardRenderer.TILE; y++) {
+                for (int x = 0; x < ScoreboardRenderer.TILE; x++) {
+                    g.setColor(new Color((seed * 37 + x * 5) & 0xff, (seed * 11 + y * 5) & 0xff, (x * y) & 0xff));
+                    g.fillRect(x, y, 1, 1);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        return tile;
+    }
+}
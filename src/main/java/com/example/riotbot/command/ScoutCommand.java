@@ -3,434 +3,374 @@ package com.example.riotbot.command;
 import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
 import discord4j.core.spec.EmbedCreateSpec;
 import com.example.riotbot.dto.CurrentGameInfo;
-import com.example.riotbot.dto.MatchDto;
-import com.example.riotbot.dto.LeagueEntryDto;
+import com.example.riotbot.dto.MatchSummary;
 import com.example.riotbot.dto.AccountDto;
+import com.example.riotbot.metrics.CommandObservations;
+import com.example.riotbot.service.Deadline;
+import com.example.riotbot.service.HotPlayerPrewarmer;
+import com.example.riotbot.service.LoadLevel;
+import com.example.riotbot.service.MatchBatchLoader;
+import com.example.riotbot.service.MatchHistoryService;
+import com.example.riotbot.service.Platform;
 import com.example.riotbot.service.RiotClient;
+import com.example.riotbot.service.ScoreboardRenderer;
+import com.example.riotbot.service.StaticDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
 import java.util.List;
 
-import discord4j.core.event.domain.lifecycle.ConnectEvent;
-
 @Component
 public class ScoutCommand extends ListenerAdapter {
 
-        private final RiotClient riotClient;
+        private static final Logger log = LoggerFactory.getLogger(ScoutCommand.class);
 
-        public ScoutCommand(RiotClient riotClient) {
+        private static final String COMMAND = "scout";
+        private static final int ENEMY_HISTORY_SIZE = 10;
+        // Discord allows roughly 5 edits per 5 s on one message; keep well below
+        private static final java.time.Duration EDIT_INTERVAL = java.time.Duration.ofMillis(1500);
+        private static final String SCOREBOARD_FILE = "scoreboard.png";
+
+        private final RiotClient riotClient;
+        private final MatchBatchLoader matchBatchLoader;
+        private final MatchHistoryService matchHistory;
+        private final CommandObservations observations;
+        private final HotPlayerPrewarmer prewarmer;
+        private final StaticDataService staticData;
+        private final ScoreboardRenderer scoreboardRenderer;
+        private final java.util.Map<String, Flux<ScoutResult>> inFlight = new java.util.concurrent.ConcurrentHashMap<>();
+
+        public ScoutCommand(RiotClient riotClient, MatchBatchLoader matchBatchLoader,
+                        MatchHistoryService matchHistory, CommandObservations observations,
+                        HotPlayerPrewarmer prewarmer, StaticDataService staticData,
+                        ScoreboardRenderer scoreboardRenderer) {
                 this.riotClient = riotClient;
+                this.matchBatchLoader = matchBatchLoader;
+                this.matchHistory = matchHistory;
+                this.observations = observations;
+                this.prewarmer = prewarmer;
+                this.staticData = staticData;
+                this.scoreboardRenderer = scoreboardRenderer;
+        }
+
+        @Override
+        public Mono<Void> onSlashCommandInteraction(ChatInputInteractionEvent event) {
+                // Already deferred by the dispatcher
+                Mono<Void> reply = Flux.defer(() -> {
+                                        String gameName = requiredOption(event, "gamename", "Game Name is required");
+                                        // Clean Inputs
+                                        String tagLine = requiredOption(event, "tagline", "Tag Line is required")
+                                                        .replace("#", "");
+
+                                        Platform platform = Platform.resolve(
+                                                        event.getOption("region")
+                                                                        .flatMap(o -> o.getValue())
+                                                                        .map(v -> v.asString())
+                                                                        .orElse(null),
+                                                        tagLine, riotClient.defaultPlatform());
+
+                                        log.debug("Processing scout command for {}#{} on {}", gameName, tagLine,
+                                                        platform);
+                                        return coalescedScout(platform, gameName, tagLine);
+                                })
+                                .as(results -> render(event, results));
+                return observations.command(COMMAND, reply)
+                                .onErrorResume(e -> event.editReply("❌ Error: " + e.getMessage()).then())
+                                .then();
+        }
+
+        private static String requiredOption(ChatInputInteractionEvent event, String name, String errorMessage) {
+                return event.getOption(name)
+                                .flatMap(o -> o.getValue().map(v -> v.asString()))
+                                .orElseThrow(() -> new RuntimeException(errorMessage));
+        }
+
+        /**
+         * Resolves everything the reply needs as a dependency graph rather than
+         * a chain. Once the account is known, three branches run at the same
+         * time:
+         *
+         * <pre>
+         * account ─┬─ spectator-v5 by PUUID (live game?)
+         *          ├─ match IDs → match summaries (latest match)
+         *          └─ summoner ── league entries (rank)
+         * </pre>
+         *
+         * so latency is that of the longest branch rather than the sum of all
+         * steps. The match history branch is cancelled as soon as a live game
+         * is found, so a player in game is not held up by it. A live game is emitted as successive snapshots: first with
+         * every enemy pending, then once more as each enemy's analysis lands.
+         */
+        private Flux<ScoutResult> scout(Platform platform, String gameName, String tagLine) {
+                // STEP 1: Get Account (regional cluster of the platform)
+                return observations.step(COMMAND, "account", riotClient.getAccount(platform, gameName, tagLine))
+                                .doOnNext(acc -> log.debug("Step 1 Success: PUUID {}", acc.puuid()))
+                                .switchIfEmpty(Mono.error(new RuntimeException("Account not found")))
+                                .onErrorResume(e -> Mono.error(new RuntimeException(
+                                                "Step 1 Failed: " + e.getMessage())))
+                                .flatMapMany(account -> {
+                                        Mono<com.example.riotbot.dto.SummonerDto> summoner = observations
+                                                        .step(COMMAND, "summoner", riotClient
+                                                                        .getSummoner(platform, account.puuid()))
+                                                        .switchIfEmpty(Mono.error(new RuntimeException(
+                                                                        "Summoner not found")))
+                                                        .cache();
+                                        Mono<String> rank = summoner.flatMap(s -> observations
+                                                        .step(COMMAND, "rank", fetchRank(platform, s)));
+                                        Mono<java.util.Optional<CurrentGameInfo>> liveGame = observations
+                                                        .step(COMMAND, "live-game", fetchLiveGame(platform, account))
+                                                        .cache();
+                                        // Only a player who is not in a game needs their latest match:
+                                        // the history branch is cancelled once a live game is found
+                                        Mono<java.util.Optional<CurrentGameInfo>> inGame = liveGame
+                                                        .filter(java.util.Optional::isPresent)
+                                                        .switchIfEmpty(Mono.never());
+                                        Mono<java.util.Optional<MatchSummary>> latestMatch = observations
+                                                        .step(COMMAND, "latest-match",
+                                                                        fetchLatestMatch(platform, account))
+                                                        .takeUntilOther(inGame)
+                                                        .map(java.util.Optional::of)
+                                                        .defaultIfEmpty(java.util.Optional.empty())
+                                                        .onErrorResume(e -> {
+                                                                log.debug("Step 2 Failed: {}", e.getMessage());
+                                                                return Mono.just(java.util.Optional.empty());
+                                                        })
+                                                        .cache();
+
+                                        // Live detection and rank are enough for the first reply; the
+                                        // history branch loads alongside until it is known to be needed
+                                        Flux<ScoutResult> results = Mono.zip(liveGame, rank)
+                                                        .flatMapMany(live -> {
+                                                                if (live.getT1().isPresent()) {
+                                                                        return analyzeActiveGame(platform, account,
+                                                                                        live.getT1().get(),
+                                                                                        live.getT2(), true);
+                                                                }
+                                                                return Mono.zip(summoner, latestMatch)
+                                                                                .flatMap(history -> {
+                                                                                        if (history.getT2().isEmpty()) {
+                                                                                                return Mono.error(new RuntimeException(
+                                                                                                                "No recent matches found."));
+                                                                                        }
+                                                                                        return Mono.just(new HistoryResult(account,
+                                                                                                        history.getT1(), live.getT2(),
+                                                                                                        history.getT2().get()));
+                                                                                });
+                                                        });
+                                        return Flux.merge(latestMatch.then(Mono.<ScoutResult>empty()), results);
+                                });
+        }
+
+        /**
+         * {@link #scout} shared by concurrent /scout commands for the same
+         * player (Riot IDs are case-insensitive) at the same load level:
+         * the first one runs the lookup and the others join it, starting
+         * from its latest snapshot. Each still renders its own reply and
+         * counts as its own scout of the player.
+         *
+         * Like the shared loads of the Riot caches, the shared lookup runs
+         * without a deadline and each command stops waiting at its own, so a
+         * joiner is not cut short by an earlier command's deadline.
+         */
+        private Flux<ScoutResult> coalescedScout(Platform platform, String gameName, String tagLine) {
+                return Flux.deferContextual(ctx -> {
+                        LoadLevel level = LoadLevel.of(ctx);
+                        String key = platform + "/" + gameName.trim().toLowerCase(java.util.Locale.ROOT)
+                                        + "#" + tagLine.trim().toLowerCase(java.util.Locale.ROOT) + "/" + level;
+                        Flux<ScoutResult> shared = inFlight.computeIfAbsent(key,
+                                        k -> scout(platform, gameName, tagLine)
+                                        .contextWrite(c -> c.delete(Deadline.class)
+                                                        .putAll(level.asContext().readOnly()))
+                                        .doFinally(signal -> inFlight.remove(k))
+                                        .replay(1)
+                                        .refCount());
+                        Flux<ScoutResult> results = shared.switchOnFirst((first, all) -> {
+                                if (first.hasValue()) {
+                                        prewarmer.recordScout(platform, first.get().account().puuid());
+                                }
+                                return all;
+                        });
+                        java.time.Duration remaining = Deadline.remaining(ctx);
+                        if (remaining == null) {
+                                return results;
+                        }
+                        return results.takeUntilOther(Mono.delay(remaining.isNegative()
+                                        ? java.time.Duration.ZERO
+                                        : remaining)
+                                        .then(Mono.error(() -> new java.util.concurrent.TimeoutException(
+                                                        "Gave up waiting at the command's deadline"))));
+                });
+        }
+
+        // STEP 2: Latest match from the recent match history
+        private Mono<MatchSummary> fetchLatestMatch(Platform platform, AccountDto account) {
+                return matchHistory.recentMatchIds(platform, account.puuid(), HotPlayerPrewarmer.HISTORY_SIZE)
+                                .doOnNext(ids -> log.debug("Step 2: {} recent match IDs", ids.size()))
+                                .flatMapMany(Flux::fromIterable)
+                                .flatMap(matchId -> riotClient.getMatchSummary(matchId)
+                                                .doOnError(e -> log.warn("Failed to fetch/parse match {}: {}",
+                                                                matchId, e.getMessage()))
+                                                .onErrorResume(e -> Mono.empty()))
+                                // Smart Sort: Newest First
+                                .reduce((m1, m2) -> m2.gameEndTimestamp() > m1.gameEndTimestamp() ? m2 : m1)
+                                .doOnNext(latest -> log.debug("Step 2 Success: Latest ID {}", latest.matchId()));
         }
 
-        // Default to a recent version, update on startup
-        private String latestVersion = "15.24.1";
+        // STEP 4: League Rank (also used by /scout-team)
+        Mono<String> fetchRank(Platform platform, com.example.riotbot.dto.SummonerDto summoner) {
+                return fetchRank(platform, summoner.id());
+        }
 
-        @jakarta.annotation.PostConstruct
-        public void init() {
-                riotClient.getLatestDDragonVersion()
-                                .doOnNext(v -> {
-                                        this.latestVersion = v;
-                                        System.out.println("ScoutCommand: Updated DDragon version to " + v);
+        private Mono<String> fetchRank(Platform platform, String summonerId) {
+                return riotClient.getLeagueEntries(platform, summonerId)
+                                .filter(l -> "RANKED_SOLO_5x5".equals(l.queueType()))
+                                .next()
+                                .map(l -> l.tier() + " " + l.rank())
+                                .defaultIfEmpty("Unranked")
+                                .onErrorResume(e -> {
+                                        log.debug("Step 4 Failed (Rank Lookup): {}", e.getMessage());
+                                        return Mono.just("Rank Unknown (API Error)");
                                 })
-                                .doOnError(e -> System.out
-                                                .println("ScoutCommand: Failed to fetch DDragon version, using default "
-                                                                + latestVersion))
-                                .subscribe();
+                                .doOnNext(rank -> log.debug("Step 4 Success: User is {}", rank));
         }
 
-        @Override
-        public Mono<Void> onSlashCommandInteraction(ChatInputInteractionEvent event) {
-                return event.deferReply()
-                                .then(Mono.defer(() -> {
-                                        try {
-                                                String finalGameName = event.getOption("gamename")
-                                                                .flatMap(o -> o.getValue().map(v -> v.asString()))
-                                                                .orElseThrow(() -> new RuntimeException(
-                                                                                "Game Name is required"));
-                                                String rawTagLine = event.getOption("tagline")
-                                                                .flatMap(o -> o.getValue().map(v -> v.asString()))
-                                                                .orElseThrow(() -> new RuntimeException(
-                                                                                "Tag Line is required"));
-
-                                                // Clean Inputs
-                                                String finalTagLine = rawTagLine.replace("#", "");
-
-                                                System.out.println("Processing scout command for: " + finalGameName
-                                                                + " #" + finalTagLine);
-
-                                                // STEP 1: Get Account (Americas)
-                                                System.out.println("Step 1: Getting PUUID from Americas for "
-                                                                + finalGameName
-                                                                + "#" + finalTagLine + "...");
-
-                                                return riotClient.getAccount(finalGameName, finalTagLine)
-                                                                .doOnNext(acc -> System.out.println(
-                                                                                "Step 1 Success: PUUID: "
-                                                                                                + acc.puuid()))
-                                                                .switchIfEmpty(Mono.error(
-                                                                                new RuntimeException(
-                                                                                                "Account not found")))
-                                                                .onErrorResume(e -> Mono.error(new RuntimeException(
-                                                                                "Step 1 Failed: " + e.getMessage())))
-
-                                                                .flatMap(account -> {
-                                                                        // STEP 1.5: Get Summoner (NA1)
-                                                                        return riotClient.getSummoner(account.puuid())
-                                                                                        .flatMap(summoner -> {
-                                                                                                // STEP 2: Get Match
-                                                                                                // History IDs
-                                                                                                System.out.println(
-                                                                                                                "Step 2: Fetching recent match IDs for PUUID: "
-                                                                                                                                + account.puuid());
-                                                                                                return riotClient
-                                                                                                                .getMatchIds(account
-                                                                                                                                .puuid(),
-                                                                                                                                10)
-                                                                                                                .doOnNext(ids -> System.out
-                                                                                                                                .println("Step 2 Debug: Raw Match IDs found: "
-                                                                                                                                                + ids))
-                                                                                                                .flatMapMany(Flux::fromIterable)
-                                                                                                                .flatMap(matchId -> riotClient
-                                                                                                                                .getMatchDetail(matchId)
-                                                                                                                                .doOnError(e -> System.out
-                                                                                                                                                .println("Step 2 Warning: Failed to fetch/parse match "
-                                                                                                                                                                + matchId
-                                                                                                                                                                + ": "
-                                                                                                                                                                + e.getMessage()))
-                                                                                                                                .onErrorResume(e -> Mono
-                                                                                                                                                .empty()))
-                                                                                                                .collectList()
-                                                                                                                .flatMap(matches -> {
-                                                                                                                        if (matches.isEmpty()) {
-                                                                                                                                return Mono.error(
-                                                                                                                                                new RuntimeException(
-                                                                                                                                                                "No recent matches found."));
-                                                                                                                        }
-
-                                                                                                                        // Smart
-                                                                                                                        // Sort:
-                                                                                                                        // Newest
-                                                                                                                        // First
-                                                                                                                        matches.sort((m1,
-                                                                                                                                        m2) -> Long.compare(
-                                                                                                                                                        m2.info().gameEndTimestamp(),
-                                                                                                                                                        m1.info().gameEndTimestamp()));
-                                                                                                                        MatchDto latestMatch = matches
-                                                                                                                                        .get(0);
-
-                                                                                                                        // DEBUG
-                                                                                                                        // LOGGING
-                                                                                                                        java.time.format.DateTimeFormatter debugFormatter = java.time.format.DateTimeFormatter
-                                                                                                                                        .ofPattern("MM/dd HH:mm")
-                                                                                                                                        .withZone(java.time.ZoneId
-                                                                                                                                                        .systemDefault());
-                                                                                                                        for (MatchDto m : matches) {
-                                                                                                                                String date = debugFormatter
-                                                                                                                                                .format(Instant.ofEpochMilli(
-                                                                                                                                                                m.info().gameEndTimestamp()));
-                                                                                                                                System.out.println(
-                                                                                                                                                "DEBUG - Match " + m
-                                                                                                                                                                .metadata()
-                                                                                                                                                                .matchId()
-                                                                                                                                                                + " Mode: "
-                                                                                                                                                                + m.info().gameMode()
-                                                                                                                                                                + " Date: "
-                                                                                                                                                                + date);
-                                                                                                                        }
-
-                                                                                                                        System.out.println(
-                                                                                                                                        "Step 2 Success: Found "
-                                                                                                                                                        + matches.size()
-                                                                                                                                                        + " matches. Latest ID: "
-                                                                                                                                                        + latestMatch.metadata()
-                                                                                                                                                                        .matchId());
-
-                                                                                                                        // Skip
-                                                                                                                        // old
-                                                                                                                        // Step
-                                                                                                                        // 3
-                                                                                                                        // (Extraction)
-                                                                                                                        // ->
-                                                                                                                        // Go
-                                                                                                                        // to
-                                                                                                                        // Step
-                                                                                                                        // 4
-                                                                                                                        return Mono.just(
-                                                                                                                                        new Step3Result(summoner,
-                                                                                                                                                        latestMatch,
-                                                                                                                                                        account));
-                                                                                                                });
-                                                                                        })
-                                                                                        // STEP 4: Verification - Get
-                                                                                        // League Rank (NA1)
-                                                                                        .flatMap(step3Result -> {
-                                                                                                com.example.riotbot.dto.SummonerDto summoner = step3Result
-                                                                                                                .summoner();
-                                                                                                MatchDto latestMatch = step3Result
-                                                                                                                .latestMatch();
-                                                                                                // AccountDto account =
-                                                                                                // step3Result.account();
-
-                                                                                                System.out.println(
-                                                                                                                "Step 4: Verifying ID via League-V4 for: "
-                                                                                                                                + summoner.id());
-                                                                                                return riotClient
-                                                                                                                .getLeagueEntries(
-                                                                                                                                summoner.id())
-                                                                                                                .filter(l -> "RANKED_SOLO_5x5"
-                                                                                                                                .equals(l.queueType()))
-                                                                                                                .next()
-                                                                                                                .map(l -> l.tier()
-                                                                                                                                + " "
-                                                                                                                                + l.rank())
-                                                                                                                .defaultIfEmpty("Unranked")
-                                                                                                                .onErrorResume(e -> {
-                                                                                                                        System.out.println(
-                                                                                                                                        "Step 4 Failed (Rank Lookup): "
-                                                                                                                                                        + e.getMessage());
-                                                                                                                        return Mono.just(
-                                                                                                                                        "Rank Unknown (API Error)");
-                                                                                                                })
-                                                                                                                .doOnNext(rank -> System.out
-                                                                                                                                .println("Step 4 Success: User is "
-                                                                                                                                                + rank))
-                                                                                                                .map(rank -> new Step4Result(
-                                                                                                                                summoner,
-                                                                                                                                latestMatch,
-                                                                                                                                rank,
-                                                                                                                                account));
-                                                                                        })
-
-                                                                                        // STEP 5: Get Active Game
-                                                                                        // (Spectator V4 - NA1)
-                                                                                        .flatMap(step4Result -> {
-                                                                                                com.example.riotbot.dto.SummonerDto summoner = step4Result
-                                                                                                                .summoner();
-                                                                                                MatchDto latestMatch = step4Result
-                                                                                                                .latestMatch();
-                                                                                                String rank = step4Result
-                                                                                                                .rank();
-
-                                                                                                System.out.println(
-                                                                                                                "Step 5: Calling Spectator V4...");
-                                                                                                return riotClient
-                                                                                                                .getCurrentMatch(
-                                                                                                                                summoner.id())
-                                                                                                                .flatMap(activeGame -> {
-                                                                                                                        System.out.println(
-                                                                                                                                        "Step 5 Success: Match Found!");
-                                                                                                                        return processActiveGame(
-                                                                                                                                        event,
-                                                                                                                                        account,
-                                                                                                                                        activeGame,
-                                                                                                                                        rank);
-                                                                                                                })
-                                                                                                                // PLAN
-                                                                                                                // B:
-                                                                                                                // Use
-                                                                                                                // Latest
-                                                                                                                // Match
-                                                                                                                // Details
-                                                                                                                .onErrorResume(e -> {
-                                                                                                                        String errorMsg = e instanceof WebClientResponseException.NotFound
-                                                                                                                                        ? "User is not currently in a game."
-                                                                                                                                        : "Live Game not found (API Restricted).";
-                                                                                                                        // Log
-                                                                                                                        // only,
-                                                                                                                        // don't
-                                                                                                                        // show
-                                                                                                                        // user
-                                                                                                                        System.out.println(
-                                                                                                                                        "Step 5 Fallback: "
-                                                                                                                                                        + errorMsg
-                                                                                                                                                        + " Proceeding to Match History.");
-
-                                                                                                                        // Directly
-                                                                                                                        // use
-                                                                                                                        // the
-                                                                                                                        // latestMatch
-                                                                                                                        return Mono.just(
-                                                                                                                                        latestMatch)
-                                                                                                                                        .flatMap(lastMatchDto -> {
-                                                                                                                                                MatchDto.Participant foundParticipant = null;
-                                                                                                                                                for (MatchDto.Participant p : lastMatchDto
-                                                                                                                                                                .info()
-                                                                                                                                                                .participants()) {
-                                                                                                                                                        if (p.puuid().equals(
-                                                                                                                                                                        account.puuid())) {
-                                                                                                                                                                foundParticipant = p;
-                                                                                                                                                                break;
-                                                                                                                                                        }
-                                                                                                                                                }
-
-                                                                                                                                                if (foundParticipant == null) {
-                                                                                                                                                        return Mono.error(
-                                                                                                                                                                        new RuntimeException(
-                                                                                                                                                                                        "User not found in match participants"));
-                                                                                                                                                }
-
-                                                                                                                                                // Prepare
-                                                                                                                                                // Data
-                                                                                                                                                // for
-                                                                                                                                                // Embed
-                                                                                                                                                String gameMode = lastMatchDto
-                                                                                                                                                                .info()
-                                                                                                                                                                .gameMode();
-                                                                                                                                                boolean won = foundParticipant
-                                                                                                                                                                .win();
-                                                                                                                                                String winLossText = won
-                                                                                                                                                                ? "VICTORY"
-                                                                                                                                                                : "DEFEAT";
-                                                                                                                                                discord4j.rest.util.Color embedColor = won
-                                                                                                                                                                ? discord4j.rest.util.Color.GREEN
-                                                                                                                                                                : discord4j.rest.util.Color.RED;
-
-                                                                                                                                                String championName = foundParticipant
-                                                                                                                                                                .championName();
-                                                                                                                                                String championUrlName = championName
-                                                                                                                                                                .replace(" ", "");
-                                                                                                                                                String thumbUrl = "https://ddragon.leagueoflegends.com/cdn/"
-                                                                                                                                                                + latestVersion
-                                                                                                                                                                + "/img/champion/"
-                                                                                                                                                                + championUrlName
-                                                                                                                                                                + ".png";
-
-                                                                                                                                                // Identity
-                                                                                                                                                // (Author)
-                                                                                                                                                // -
-                                                                                                                                                // Using
-                                                                                                                                                // SummonerDTO
-                                                                                                                                                // Profile
-                                                                                                                                                // Icon
-                                                                                                                                                String authorName = finalGameName
-                                                                                                                                                                + " #"
-                                                                                                                                                                + finalTagLine;
-                                                                                                                                                int profileIconId = summoner
-                                                                                                                                                                .profileIconId();
-                                                                                                                                                String profileIconUrl = "https://ddragon.leagueoflegends.com/cdn/"
-                                                                                                                                                                + latestVersion
-                                                                                                                                                                + "/img/profileicon/"
-                                                                                                                                                                + profileIconId
-                                                                                                                                                                + ".png";
-
-                                                                                                                                                // Stats
-                                                                                                                                                String kda = foundParticipant
-                                                                                                                                                                .kills()
-                                                                                                                                                                + "/"
-                                                                                                                                                                + foundParticipant
-                                                                                                                                                                                .deaths()
-                                                                                                                                                                + "/"
-                                                                                                                                                                + foundParticipant
-                                                                                                                                                                                .assists();
-                                                                                                                                                int totalCS = foundParticipant
-                                                                                                                                                                .totalMinionsKilled()
-                                                                                                                                                                + foundParticipant
-                                                                                                                                                                                .neutralMinionsKilled();
-                                                                                                                                                int gold = foundParticipant
-                                                                                                                                                                .goldEarned();
-                                                                                                                                                int damage = foundParticipant
-                                                                                                                                                                .totalDamageDealtToChampions();
-                                                                                                                                                int damageTaken = foundParticipant
-                                                                                                                                                                .totalDamageTaken();
-                                                                                                                                                int vision = foundParticipant
-                                                                                                                                                                .visionScore();
-
-                                                                                                                                                java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter
-                                                                                                                                                                .ofPattern("MM/dd/yyyy")
-                                                                                                                                                                .withZone(java.time.ZoneId
-                                                                                                                                                                                .systemDefault());
-                                                                                                                                                String matchDate = formatter
-                                                                                                                                                                .format(Instant.ofEpochMilli(
-                                                                                                                                                                                lastMatchDto.info()
-                                                                                                                                                                                                .gameEndTimestamp()));
-
-                                                                                                                                                // Build
-                                                                                                                                                // Embed
-                                                                                                                                                EmbedCreateSpec embed = EmbedCreateSpec
-                                                                                                                                                                .builder()
-                                                                                                                                                                .author(authorName,
-                                                                                                                                                                                null,
-                                                                                                                                                                                profileIconUrl)
-                                                                                                                                                                .title(winLossText
-                                                                                                                                                                                + " in "
-                                                                                                                                                                                + gameMode)
-                                                                                                                                                                .color(embedColor)
-                                                                                                                                                                .thumbnail(thumbUrl)
-                                                                                                                                                                .description("Played as **"
-                                                                                                                                                                                + championName
-                                                                                                                                                                                + "**")
-                                                                                                                                                                .addField("⚔️ Combat",
-                                                                                                                                                                                "KDA: " + kda + "\n"
-                                                                                                                                                                                                +
-                                                                                                                                                                                                "Dmg Dealt: "
-                                                                                                                                                                                                + String.format("%,d",
-                                                                                                                                                                                                                damage)
-                                                                                                                                                                                                + "\n"
-                                                                                                                                                                                                +
-                                                                                                                                                                                                "Dmg Taken: "
-                                                                                                                                                                                                + String.format("%,d",
-                                                                                                                                                                                                                damageTaken),
-                                                                                                                                                                                true)
-                                                                                                                                                                .addField("🚜 Farming & Gold",
-                                                                                                                                                                                "CS: " + totalCS + "\n"
-                                                                                                                                                                                                +
-                                                                                                                                                                                                "Gold: "
-                                                                                                                                                                                                + String.format("%,d",
-                                                                                                                                                                                                                gold),
-                                                                                                                                                                                true)
-                                                                                                                                                                .addField("👀 Vision",
-                                                                                                                                                                                "Vision Score: " + vision,
-                                                                                                                                                                                true)
-                                                                                                                                                                .footer("Scout Bot • "
-                                                                                                                                                                                + matchDate,
-                                                                                                                                                                                null)
-                                                                                                                                                                .build();
-
-                                                                                                                                                return event.editReply(
-                                                                                                                                                                discord4j.core.spec.InteractionReplyEditSpec
-                                                                                                                                                                                .create()
-                                                                                                                                                                                .withContent("") // Silence
-                                                                                                                                                                                                 // "Not
-                                                                                                                                                                                                 // Found"
-                                                                                                                                                                                                 // message
-                                                                                                                                                                                .withEmbeds(embed))
-                                                                                                                                                                .then();
-                                                                                                                                        })
-                                                                                                                                        .onErrorResume(ex -> event
-                                                                                                                                                        .editReply("⚠️ **"
-                                                                                                                                                                        + finalGameName
-                                                                                                                                                                        + " #"
-                                                                                                                                                                        + finalTagLine
-                                                                                                                                                                        + "**\n"
-                                                                                                                                                                        +
-                                                                                                                                                                        "Error building stats: "
-                                                                                                                                                                        + ex.getMessage())
-                                                                                                                                                        .then());
-                                                                                                                });
-                                                                                        });
-                                                                });
-                                        } catch (Exception e) {
-                                                return Mono.error(e);
-                                        }
-                                }))
-                                .onErrorResume(e -> event.editReply("❌ Error: " + e.getMessage()).then())
+        // STEP 5: Active Game (Spectator V5)
+        private Mono<java.util.Optional<CurrentGameInfo>> fetchLiveGame(Platform platform, AccountDto account) {
+                // Not being in a game is an empty Optional, cached briefly by RiotClient
+                return riotClient.getLiveGame(platform, account.puuid())
+                                .doOnNext(game -> log.debug("Step 5: {}", game.isPresent()
+                                                ? "Match Found!"
+                                                : "User is not currently in a game."))
+                                // PLAN B: Use Latest Match Details
+                                .onErrorResume(e -> {
+                                        // Log only, don't show user
+                                        log.debug("Step 5 Fallback: Live Game not found (API Restricted): {}."
+                                                        + " Proceeding to Match History.", e.getMessage());
+                                        return Mono.just(java.util.Optional.empty());
+                                });
+        }
+
+        /**
+         * Edits the deferred reply with the first result right away, then with
+         * the latest snapshot at most once per {@link #EDIT_INTERVAL} (and
+         * always with the final one) to stay inside Discord's edit rate limit.
+         */
+        private Mono<Void> render(ChatInputInteractionEvent event, Flux<ScoutResult> results) {
+                return results
+                                .publish(shared -> Flux.merge(shared.take(1), shared.skip(1).sample(EDIT_INTERVAL)))
+                                .concatMap(result -> observations.step(COMMAND, "reply", render(event, result)))
                                 .then();
         }
 
-        private record Step3Result(com.example.riotbot.dto.SummonerDto summoner, MatchDto latestMatch,
-                        AccountDto account) {
+        private Mono<Void> render(ChatInputInteractionEvent event, ScoutResult result) {
+                if (result instanceof LiveResult live) {
+                        EmbedCreateSpec embed = buildLiveEmbed(live);
+                        if (!live.complete()) {
+                                return event.editReply().withEmbeds(embed).then();
+                        }
+                        // The image carries the per-player fields; an empty attachment list drops any
+                        // image already on the reply
+                        return observations.step(COMMAND, "scoreboard", scoreboardRenderer.render(scoreboard(live)))
+                                        .flatMap(png -> event.editReply(discord4j.core.spec.InteractionReplyEditSpec
+                                                        .builder()
+                                                        .addEmbed(embed.withFields(List.of())
+                                                                        .withImage("attachment://" + SCOREBOARD_FILE))
+                                                        .attachments(discord4j.discordjson.possible.Possible.of(
+                                                                        java.util.Optional.of(List.of())))
+                                                        .addFile(SCOREBOARD_FILE, new java.io.ByteArrayInputStream(png))
+                                                        .build()))
+                                        .then()
+                                        .onErrorResume(e -> {
+                                                log.warn("Scoreboard failed, replying with text: {}", e.toString());
+                                                return event.editReply().withEmbeds(embed).then();
+                                        });
+                }
+                HistoryResult history = (HistoryResult) result;
+                String riotId = history.account().gameName() + " #" + history.account().tagLine();
+                return Mono.fromCallable(() -> buildHistoryEmbed(history))
+                                .flatMap(embed -> event.editReply(
+                                                discord4j.core.spec.InteractionReplyEditSpec.create()
+                                                                // Silence "Not Found" message
+                                                                .withContent(discord4j.discordjson.possible.Possible
+                                                                                .of(java.util.Optional.of("")))
+                                                                .withEmbeds(embed)))
+                                .then()
+                                .onErrorResume(ex -> event
+                                                .editReply("⚠️ **" + riotId + "**\n"
+                                                                + "Error building stats: " + ex.getMessage())
+                                                .then());
         }
 
-        private record Step4Result(com.example.riotbot.dto.SummonerDto summoner, MatchDto latestMatch, String rank,
-                        AccountDto account) {
+        EmbedCreateSpec buildHistoryEmbed(HistoryResult history) {
+                MatchSummary lastMatch = history.latestMatch();
+                int slot = lastMatch.indexOf(history.account().puuid());
+                if (slot < 0) {
+                        throw new RuntimeException("User not found in match participants");
+                }
+
+                // Prepare Data for Embed
+                String gameMode = lastMatch.gameMode();
+                boolean won = lastMatch.won(slot);
+                String winLossText = won ? "VICTORY" : "DEFEAT";
+                discord4j.rest.util.Color embedColor = won
+                                ? discord4j.rest.util.Color.GREEN
+                                : discord4j.rest.util.Color.RED;
+
+                // One snapshot, so champion and icon URLs are of the same version
+                StaticDataService.StaticData assets = staticData.snapshot();
+                StaticDataService.Champion champion = assets.champion(lastMatch.championName(slot));
+
+                // Identity (Author) - Using SummonerDTO Profile Icon
+                String authorName = history.account().gameName() + " #" + history.account().tagLine();
+                String profileIconUrl = assets.profileIconUrl(history.summoner().profileIconId());
+
+                // Stats
+                String kda = lastMatch.kills(slot) + "/" + lastMatch.deaths(slot) + "/" + lastMatch.assists(slot);
+                int totalCS = lastMatch.totalCs(slot);
+                int gold = lastMatch.goldEarned(slot);
+                int damage = lastMatch.damageDealt(slot);
+                int damageTaken = lastMatch.damageTaken(slot);
+                int vision = lastMatch.visionScore(slot);
+
+                java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter
+                                .ofPattern("MM/dd/yyyy")
+                                .withZone(java.time.ZoneId.systemDefault());
+                String matchDate = formatter.format(Instant.ofEpochMilli(lastMatch.gameEndTimestamp()));
+
+                // Build Embed
+                return EmbedCreateSpec.builder()
+                                .author(authorName, null, profileIconUrl)
+                                .title(winLossText + " in " + gameMode)
+                                .color(embedColor)
+                                .thumbnail(champion.iconUrl())
+                                .description("Played as **" + champion.name() + "**")
+                                .addField("⚔️ Combat",
+                                                "KDA: " + kda + "\n"
+                                                                + "Dmg Dealt: " + String.format("%,d", damage) + "\n"
+                                                                + "Dmg Taken: " + String.format("%,d", damageTaken),
+                                                true)
+                                .addField("🚜 Farming & Gold",
+                                                "CS: " + totalCS + "\n"
+                                                                + "Gold: " + String.format("%,d", gold),
+                                                true)
+                                .addField("👀 Vision", "Vision Score: " + vision, true)
+                                .footer("Scout Bot • " + matchDate, null)
+                                .build();
         }
 
-        private Mono<Void> processActiveGame(ChatInputInteractionEvent event,
-                        AccountDto userAccount, CurrentGameInfo activeGame, String userRank) {
+        /**
+         * Snapshots of the live game as each enemy's analysis lands. With
+         * {@code withRanks} (for the scoreboard image) the other players' ranks
+         * are looked up alongside; a rank alone changes nothing in the text
+         * embed, so it only produces a snapshot when it is the last input and
+         * completes the game.
+         */
+        private Flux<ScoutResult> analyzeActiveGame(Platform platform, AccountDto userAccount,
+                        CurrentGameInfo activeGame, String userRank, boolean withRanks) {
                 // Identify user's team
                 long userTeamId = activeGame.participants().stream()
                                 .filter(p -> p.puuid().equals(userAccount.puuid()))
@@ -443,60 +383,181 @@ public class ScoutCommand extends ListenerAdapter {
                                 .filter(p -> p.teamId() != userTeamId)
                                 .toList();
 
-                // Analyze enemies concurrently
-                return Flux.fromIterable(enemies)
-                                .flatMap(enemy -> analyzeEnemy(enemy), 5)
-                                .collectList()
-                                .flatMap(enemyStats -> {
-                                        EmbedCreateSpec.Builder embedBuilder = EmbedCreateSpec.builder();
-                                        embedBuilder.color(discord4j.rest.util.Color.RED);
-                                        embedBuilder.title("Details for " + userAccount.gameName() + " (" + userRank
-                                                        + ")");
-                                        embedBuilder.description("**LIVE MATCH FOUND**");
-                                        embedBuilder.timestamp(Instant.now());
-
-                                        for (EnemyStats stats : enemyStats) {
-                                                embedBuilder.addField(
-                                                                stats.riotId(),
-                                                                String.format("WR: %.0f%% (%dW - %dL)",
-                                                                                stats.getWinRate() * 100,
-                                                                                stats.wins(),
-                                                                                stats.losses()),
-                                                                false);
-                                        }
-                                        return event.editReply().withEmbeds(embedBuilder.build()).then();
-                                });
+                // Ranks of the other nine players, for the scoreboard image
+                List<CurrentGameInfo.CurrentGameParticipant> ranked = withRanks
+                                ? activeGame.participants().stream()
+                                                .filter(p -> !p.puuid().equals(userAccount.puuid())
+                                                                && p.summonerId() != null)
+                                                .toList()
+                                : List.of();
+
+                // Analyze all enemies from one shared, deduplicated set of matches,
+                // publishing a new snapshot as each enemy completes
+                LiveResult initial = new LiveResult(userAccount, userRank, enemies.stream()
+                                .map(enemy -> EnemyStats.pending(displayName(enemy)))
+                                .toList(), false, activeGame, java.util.Map.of(userAccount.puuid(), userRank),
+                                ranked.size());
+                return Flux.deferContextual(ctx -> {
+                        // Enemy histories are the bulk of a live scout's Riot calls; under load answer
+                        // with the game itself and leave them out
+                        if (LoadLevel.of(ctx) != LoadLevel.NORMAL) {
+                                return Flux.just(new LiveResult(userAccount, userRank, initial.enemies(), true,
+                                                activeGame, initial.ranks(), 0));
+                        }
+                        Flux<MatchBatchLoader.PlayerHistory> histories = observations.step(COMMAND,
+                                        "enemy-analysis", matchBatchLoader.streamHistories(platform, enemies.stream()
+                                                        .map(CurrentGameInfo.CurrentGameParticipant::puuid)
+                                                        .toList(), ENEMY_HISTORY_SIZE));
+                        Flux<PlayerRank> ranks = ranked.isEmpty() ? Flux.empty() : observations.step(COMMAND,
+                                        "ranks", Flux.fromIterable(ranked)
+                                                        .flatMap(p -> fetchRank(platform, p.summonerId())
+                                                                        .map(rank -> new PlayerRank(p.puuid(), rank))));
+                        return Flux.<Object>merge(histories, ranks)
+                                        .scan(initial, (snapshot, update) -> {
+                                                if (update instanceof PlayerRank rank) {
+                                                        java.util.Map<String, String> known = new java.util.HashMap<>(
+                                                                        snapshot.ranks());
+                                                        known.put(rank.puuid(), rank.rank());
+                                                        return new LiveResult(userAccount, userRank, snapshot.enemies(),
+                                                                        false, activeGame, java.util.Map.copyOf(known),
+                                                                        snapshot.ranksPending() - 1);
+                                                }
+                                                MatchBatchLoader.PlayerHistory history = (MatchBatchLoader.PlayerHistory) update;
+                                                List<EnemyStats> stats = new java.util.ArrayList<>(snapshot.enemies());
+                                                for (int i = 0; i < enemies.size(); i++) {
+                                                        if (enemies.get(i).puuid().equals(history.puuid())) {
+                                                                stats.set(i, analyzeEnemy(enemies.get(i), history.matches()));
+                                                        }
+                                                }
+                                                return new LiveResult(userAccount, userRank, List.copyOf(stats), false,
+                                                                activeGame, snapshot.ranks(), snapshot.ranksPending());
+                                        })
+                                        .distinctUntilChanged(snapshot -> List.of(snapshot.enemies(),
+                                                        snapshot.complete()));
+                }).cast(ScoutResult.class);
+        }
+
+        /**
+         * The finished live-game embed for a game found outside a /scout reply
+         * (a /watch notification), with no intermediate snapshots.
+         */
+        Mono<EmbedCreateSpec> liveGameEmbed(Platform platform, AccountDto account, CurrentGameInfo game) {
+                return riotClient.getSummoner(platform, account.puuid())
+                                .flatMap(summoner -> fetchRank(platform, summoner))
+                                .onErrorResume(e -> Mono.empty())
+                                .defaultIfEmpty("Rank Unknown")
+                                .flatMapMany(rank -> analyzeActiveGame(platform, account, game, rank, false))
+                                .last()
+                                .cast(LiveResult.class)
+                                .map(this::buildLiveEmbed);
         }
 
-        private Mono<EnemyStats> analyzeEnemy(CurrentGameInfo.CurrentGameParticipant enemy) {
-                String displayName = (enemy.riotId() != null && !enemy.riotId().isEmpty())
+        /** All ten players, for {@link ScoreboardRenderer}; enemies carry their analysis. */
+        ScoreboardRenderer.Scoreboard scoreboard(LiveResult live) {
+                CurrentGameInfo game = live.game();
+                long userTeamId = game.participants().stream()
+                                .filter(p -> p.puuid().equals(live.account().puuid()))
+                                .findFirst()
+                                .map(CurrentGameInfo.CurrentGameParticipant::teamId)
+                                .orElse(0L);
+                List<ScoreboardRenderer.Row> rows = new java.util.ArrayList<>(game.participants().size());
+                int enemy = 0;
+                for (CurrentGameInfo.CurrentGameParticipant p : game.participants()) {
+                        EnemyStats stats = p.teamId() != userTeamId && enemy < live.enemies().size()
+                                        ? live.enemies().get(enemy++)
+                                        : null;
+                        rows.add(new ScoreboardRenderer.Row(p.teamId(), p.championId(), displayName(p),
+                                        live.ranks().get(p.puuid()),
+                                        stats == null ? 0 : stats.wins(), stats == null ? 0 : stats.losses(),
+                                        stats != null && !stats.pending(), p.puuid().equals(live.account().puuid())));
+                }
+                return new ScoreboardRenderer.Scoreboard(game.gameId(),
+                                "Live " + game.gameMode() + " • " + live.account().gameName() + " (" + live.rank() + ")",
+                                List.copyOf(rows));
+        }
+
+        EmbedCreateSpec buildLiveEmbed(LiveResult live) {
+                EmbedCreateSpec.Builder embedBuilder = EmbedCreateSpec.builder();
+                embedBuilder.color(discord4j.rest.util.Color.RED);
+                embedBuilder.title("Details for " + live.account().gameName() + " (" + live.rank() + ")");
+                embedBuilder.description(live.analysisSkipped()
+                                ? "**LIVE MATCH FOUND**\n_Enemy analysis skipped, the bot is busy right now._"
+                                : "**LIVE MATCH FOUND**");
+                embedBuilder.timestamp(Instant.now());
+
+                for (EnemyStats stats : live.enemies()) {
+                        embedBuilder.addField(
+                                        stats.riotId(),
+                                        live.analysisSkipped()
+                                                        ? "—"
+                                                        : stats.pending()
+                                                        ? "⏳ Analyzing recent games..."
+                                                        : String.format("WR: %.0f%% (%dW - %dL)",
+                                                                        stats.getWinRate() * 100,
+                                                                        stats.wins(),
+                                                                        stats.losses()),
+                                        false);
+                }
+                return embedBuilder.build();
+        }
+
+        private static String displayName(CurrentGameInfo.CurrentGameParticipant enemy) {
+                return (enemy.riotId() != null && !enemy.riotId().isEmpty())
                                 ? enemy.riotId()
-                                : "Summoner (" + enemy.summonerId().substring(0, 5) + "...)";
+                                : "Summoner (" + enemy.puuid().substring(0, 5) + "...)";
+        }
 
-                return riotClient.getMatchIds(enemy.puuid(), 10)
-                                .flatMapMany(Flux::fromIterable)
-                                .flatMap(matchId -> riotClient.getMatchDetail(matchId))
-                                .filter(match -> match.info() != null)
-                                .collectList()
-                                .map(matches -> {
-                                        int wins = 0;
-                                        int losses = 0;
-                                        for (MatchDto match : matches) {
-                                                boolean won = match.info().participants().stream()
-                                                                .filter(p -> p.puuid().equals(enemy.puuid()))
-                                                                .findFirst()
-                                                                .map(MatchDto.Participant::win)
-                                                                .orElse(false);
-                                                if (won)
-                                                        wins++;
-                                                else
-                                                        losses++;
-                                        }
-                                        return new EnemyStats(displayName, wins, losses);
-                                });
+        EnemyStats analyzeEnemy(CurrentGameInfo.CurrentGameParticipant enemy, List<MatchSummary> matches) {
+
+                int wins = 0;
+                int losses = 0;
+                for (MatchSummary match : matches) {
+                        int slot = match.indexOf(enemy.puuid());
+                        boolean won = slot >= 0 && match.won(slot);
+                        if (won)
+                                wins++;
+                        else
+                                losses++;
+                }
+                return new EnemyStats(displayName(enemy), wins, losses, false);
+        }
+
+        // Package-private, like the embed builders and analyzeEnemy, for the JMH benchmarks in src/jmh
+        sealed interface ScoutResult permits HistoryResult, LiveResult {
+                AccountDto account();
+        }
+
+        record HistoryResult(AccountDto account, com.example.riotbot.dto.SummonerDto summoner, String rank,
+                        MatchSummary latestMatch) implements ScoutResult {
+        }
+
+        /**
+         * @param game         the live game, or null when not known (no scoreboard is drawn)
+         * @param ranks        rank by PUUID of the players looked up so far
+         * @param ranksPending rank lookups still running
+         */
+        record LiveResult(AccountDto account, String rank, List<EnemyStats> enemies, boolean analysisSkipped,
+                        CurrentGameInfo game, java.util.Map<String, String> ranks, int ranksPending)
+                        implements ScoutResult {
+                LiveResult(AccountDto account, String rank, List<EnemyStats> enemies) {
+                        this(account, rank, enemies, false, null, java.util.Map.of(), 0);
+                }
+
+                /** Every enemy analyzed and every rank in: the snapshot worth a scoreboard image. */
+                boolean complete() {
+                        return game != null && !analysisSkipped && ranksPending == 0
+                                        && enemies.stream().noneMatch(EnemyStats::pending);
+                }
         }
 
-        private record EnemyStats(String riotId, int wins, int losses) {
+        private record PlayerRank(String puuid, String rank) {
+        }
+
+        record EnemyStats(String riotId, int wins, int losses, boolean pending) {
+                static EnemyStats pending(String riotId) {
+                        return new EnemyStats(riotId, 0, 0, true);
+                }
+
                 public double getWinRate() {
                         return (wins + losses) == 0 ? 0.0 : (double) wins / (wins + losses);
                 }
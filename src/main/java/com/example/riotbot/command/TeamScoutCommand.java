@@ -0,0 +1,250 @@
+package com.example.riotbot.command;
+
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.spec.EmbedCreateSpec;
+import com.example.riotbot.dto.AccountDto;
+import com.example.riotbot.dto.MatchSummary;
+import com.example.riotbot.metrics.CommandObservations;
+import com.example.riotbot.service.HotPlayerPrewarmer;
+import com.example.riotbot.service.MatchBatchLoader;
+import com.example.riotbot.service.Platform;
+import com.example.riotbot.service.PlayerStats;
+import com.example.riotbot.service.PlayerStatsEngine;
+import com.example.riotbot.service.RequestPriority;
+import com.example.riotbot.service.RiotClient;
+import com.example.riotbot.service.StaticDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * /scout-team: rank, recent win rate, KDA, CS per minute, damage share and
+ * champion pool of up to five players (a clash team) in one embed.
+ *
+ * All players go through one pipeline instead of five /scout runs: accounts
+ * and ranks come from the same cached {@link RiotClient} calls, match history
+ * is loaded with {@link MatchBatchLoader} so games the team played together
+ * are fetched once, and no live-game lookup is made. The matches are folded
+ * into {@link PlayerStatsEngine}, so a rescout only adds the new games.
+ *
+ * The reply is built from the last {@link HotPlayerPrewarmer#HISTORY_SIZE}
+ * matches, the depth a /scout loads. Deeper stats ({@code riot.stats.matches})
+ * are filled in afterwards at background priority, so they show from the
+ * next scout of the team on.
+ */
+@Component
+public class TeamScoutCommand extends ListenerAdapter {
+
+        private static final Logger log = LoggerFactory.getLogger(TeamScoutCommand.class);
+
+        private static final String COMMAND = "scout-team";
+        static final int MAX_PLAYERS = 5;
+        private static final int POOL_SIZE = 3;
+        private static final int LOOKUP_CONCURRENCY = MAX_PLAYERS;
+
+        private final RiotClient riotClient;
+        private final MatchBatchLoader matchBatchLoader;
+        private final ScoutCommand scoutCommand;
+        private final CommandObservations observations;
+        private final HotPlayerPrewarmer prewarmer;
+        private final PlayerStatsEngine statsEngine;
+        private final StaticDataService staticData;
+
+        public TeamScoutCommand(RiotClient riotClient, MatchBatchLoader matchBatchLoader, ScoutCommand scoutCommand,
+                        CommandObservations observations, HotPlayerPrewarmer prewarmer,
+                        PlayerStatsEngine statsEngine, StaticDataService staticData) {
+                this.riotClient = riotClient;
+                this.matchBatchLoader = matchBatchLoader;
+                this.scoutCommand = scoutCommand;
+                this.observations = observations;
+                this.prewarmer = prewarmer;
+                this.statsEngine = statsEngine;
+                this.staticData = staticData;
+        }
+
+        @Override
+        public Mono<Void> onSlashCommandInteraction(ChatInputInteractionEvent event) {
+                // Already deferred by the dispatcher
+                Mono<Void> reply = Mono.defer(() -> {
+                                        List<String> riotIds = new ArrayList<>();
+                                        for (int i = 1; i <= MAX_PLAYERS; i++) {
+                                                event.getOption("player" + i)
+                                                                .flatMap(o -> o.getValue())
+                                                                .map(v -> v.asString().trim())
+                                                                .filter(id -> !id.isEmpty())
+                                                                .filter(id -> !riotIds.contains(id))
+                                                                .ifPresent(riotIds::add);
+                                        }
+                                        if (riotIds.isEmpty()) {
+                                                return Mono.error(new RuntimeException("At least one Riot ID is required"));
+                                        }
+                                        // Teams play on one server: the region option, else the first player's tag
+                                        Platform platform = Platform.resolve(
+                                                        event.getOption("region")
+                                                                        .flatMap(o -> o.getValue())
+                                                                        .map(v -> v.asString())
+                                                                        .orElse(null),
+                                                        tagLine(riotIds.get(0)), riotClient.defaultPlatform());
+
+                                        log.debug("Processing scout-team command for {} on {}", riotIds, platform);
+                                        return scoutTeam(platform, riotIds);
+                                })
+                                .flatMap(members -> observations.step(COMMAND, "reply",
+                                                event.editReply().withEmbeds(buildTeamEmbed(members)).then()));
+                return observations.command(COMMAND, reply)
+                                .onErrorResume(e -> event.editReply("❌ Error: " + e.getMessage()).then())
+                                .then();
+        }
+
+        /**
+         * Accounts first, then ranks and one batched history load side by side.
+         * Players that cannot be resolved are kept, with the reason, so the
+         * embed still lists all five.
+         */
+        private Mono<List<TeamMember>> scoutTeam(Platform platform, List<String> riotIds) {
+                Mono<List<Resolved>> accounts = Flux.fromIterable(riotIds)
+                                .flatMapSequential(riotId -> resolve(platform, riotId), LOOKUP_CONCURRENCY)
+                                .collectList();
+                return observations.step(COMMAND, "accounts", accounts)
+                                .flatMap(resolved -> {
+                                        List<AccountDto> found = resolved.stream()
+                                                        .flatMap(r -> r.account().stream())
+                                                        .toList();
+                                        found.forEach(account -> prewarmer.recordScout(platform, account.puuid()));
+
+                                        Mono<Map<String, String>> ranks = Flux.fromIterable(found)
+                                                        .flatMap(account -> riotClient
+                                                                        .getSummoner(platform, account.puuid())
+                                                                        .flatMap(s -> scoutCommand.fetchRank(platform, s))
+                                                                        .defaultIfEmpty("Unranked")
+                                                                        .onErrorResume(e -> Mono.just("Rank Unknown"))
+                                                                        .map(rank -> Map.entry(account.puuid(), rank)),
+                                                                        LOOKUP_CONCURRENCY)
+                                                        .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+                                        Mono<MatchBatchLoader.BatchResult> histories = matchBatchLoader.loadHistories(
+                                                        platform,
+                                                        found.stream().map(AccountDto::puuid).toList(),
+                                                        HotPlayerPrewarmer.HISTORY_SIZE);
+
+                                        return Mono.zip(observations.step(COMMAND, "ranks", ranks),
+                                                        observations.step(COMMAND, "histories", histories))
+                                                        .map(loaded -> {
+                                                                List<TeamMember> members = new ArrayList<>(resolved.size());
+                                                                List<String> shallow = new ArrayList<>();
+                                                                for (Resolved r : resolved) {
+                                                                        if (r.account().isEmpty()) {
+                                                                                members.add(TeamMember.failed(r.riotId(), r.error()));
+                                                                                continue;
+                                                                        }
+                                                                        String puuid = r.account().get().puuid();
+                                                                        List<MatchSummary> history = loaded.getT2().history(puuid);
+                                                                        PlayerStats.Snapshot stats = statsEngine.record(platform, puuid,
+                                                                                        history);
+                                                                        members.add(new TeamMember(r.riotId(),
+                                                                                        loaded.getT1().getOrDefault(puuid, "Rank Unknown"),
+                                                                                        stats, null));
+                                                                        // A full page means older games exist beyond it
+                                                                        if (stats.games() < statsEngine.matchesPerPlayer()
+                                                                                        && history.size() >= HotPlayerPrewarmer.HISTORY_SIZE) {
+                                                                                shallow.add(puuid);
+                                                                        }
+                                                                }
+                                                                deepen(platform, shallow);
+                                                                return members;
+                                                        });
+                                });
+        }
+
+        /**
+         * Loads the players' deeper history into {@link PlayerStatsEngine} in
+         * the background. Costs up to {@code riot.stats.matches} match fetches
+         * per player the first time, spent at background priority instead of
+         * delaying the reply; later scouts only fetch new games.
+         */
+        private void deepen(Platform platform, List<String> puuids) {
+                if (puuids.isEmpty()) {
+                        return;
+                }
+                matchBatchLoader.loadHistories(platform, puuids, statsEngine.matchesPerPlayer())
+                                .contextWrite(RequestPriority.BACKGROUND.asContext())
+                                .subscribe(result -> puuids.forEach(puuid -> statsEngine.record(platform, puuid,
+                                                result.history(puuid))),
+                                                e -> log.debug("Deeper team history load failed: {}", e.toString()));
+        }
+
+        private Mono<Resolved> resolve(Platform platform, String riotId) {
+                int hash = riotId.lastIndexOf('#');
+                if (hash <= 0 || hash == riotId.length() - 1) {
+                        return Mono.just(new Resolved(riotId, Optional.empty(), "Expected Name#TAG"));
+                }
+                return riotClient.getAccount(platform, riotId.substring(0, hash), riotId.substring(hash + 1))
+                                .map(account -> new Resolved(riotId, Optional.of(account), null))
+                                .defaultIfEmpty(new Resolved(riotId, Optional.empty(), "Account not found"))
+                                .onErrorResume(e -> {
+                                        log.debug("Team account lookup of {} failed: {}", riotId, e.getMessage());
+                                        return Mono.just(new Resolved(riotId, Optional.empty(), "Account not found"));
+                                });
+        }
+
+        private static String tagLine(String riotId) {
+                int hash = riotId.lastIndexOf('#');
+                return hash < 0 ? "" : riotId.substring(hash + 1);
+        }
+
+        EmbedCreateSpec buildTeamEmbed(List<TeamMember> members) {
+                EmbedCreateSpec.Builder embedBuilder = EmbedCreateSpec.builder();
+                embedBuilder.color(discord4j.rest.util.Color.BLUE);
+                embedBuilder.title("Team Scout");
+                embedBuilder.description("Up to the last " + statsEngine.matchesPerPlayer() + " matches per player");
+
+                for (TeamMember member : members) {
+                        if (member.error() != null) {
+                                embedBuilder.addField(member.riotId(), "⚠️ " + member.error(), false);
+                                continue;
+                        }
+                        StringBuilder value = new StringBuilder()
+                                        .append("🏅 ").append(member.rank()).append('\n');
+                        PlayerStats.Snapshot stats = member.stats();
+                        if (stats.games() == 0) {
+                                value.append("No recent matches");
+                        } else {
+                                value.append(String.format("📈 WR: %.0f%% (%dW - %dL)%n",
+                                                stats.winRate() * 100, stats.wins(), stats.games() - stats.wins()));
+                                value.append(String.format("⚔️ %.1f/%.1f/%.1f (%.2f KDA)%n",
+                                                stats.avgKills(), stats.avgDeaths(), stats.avgAssists(), stats.kda()));
+                                value.append(String.format("🚜 %.1f CS/min • %.0f%% dmg%n",
+                                                stats.csPerMinute(), stats.damageShare() * 100));
+                                value.append("🧙 ");
+                                List<PlayerStats.ChampionStats> pool = stats.champions();
+                                for (int i = 0; i < Math.min(POOL_SIZE, pool.size()); i++) {
+                                        PlayerStats.ChampionStats champion = pool.get(i);
+                                        if (i > 0) {
+                                                value.append(", ");
+                                        }
+                                        // Display name ("Wukong" rather than match-v5's "MonkeyKing")
+                                        value.append(String.format("%s %.0f%% (%d)",
+                                                        staticData.champion(champion.name()).name(),
+                                                        champion.winRate() * 100, champion.games()));
+                                }
+                        }
+                        embedBuilder.addField(member.riotId(), value.toString(), true);
+                }
+                return embedBuilder.build();
+        }
+
+        private record Resolved(String riotId, Optional<AccountDto> account, String error) {
+        }
+
+        record TeamMember(String riotId, String rank, PlayerStats.Snapshot stats, String error) {
+                static TeamMember failed(String riotId, String error) {
+                        return new TeamMember(riotId, null, null, error);
+                }
+        }
+}
@@ -0,0 +1,138 @@
+package com.example.riotbot.command;
+
+import discord4j.common.util.Snowflake;
+import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.discordjson.json.MessageCreateRequest;
+import discord4j.rest.RestClient;
+import com.example.riotbot.metrics.CommandObservations;
+import com.example.riotbot.service.LiveGameWatcher;
+import com.example.riotbot.service.Platform;
+import com.example.riotbot.service.RequestPriority;
+import com.example.riotbot.service.RiotClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * /watch: posts the live-game analysis to the channel whenever the player
+ * starts a game. Polling is done by {@link LiveGameWatcher}, once per
+ * player; here the analysis of a new game is computed once and then sent to
+ * every channel watching. Announcements are not a reply to anyone, so their
+ * Riot calls run at background priority. Watches live in memory and end on
+ * restart.
+ */
+@Component
+public class WatchCommand extends ListenerAdapter {
+
+        private static final Logger log = LoggerFactory.getLogger(WatchCommand.class);
+
+        private static final String COMMAND = "watch";
+        private static final int ANNOUNCE_CONCURRENCY = 4;
+
+        private final RiotClient riotClient;
+        private final LiveGameWatcher watcher;
+        private final ScoutCommand scoutCommand;
+        private final RestClient restClient;
+        private final CommandObservations observations;
+        private Disposable announcements;
+
+        public WatchCommand(RiotClient riotClient, LiveGameWatcher watcher, ScoutCommand scoutCommand,
+                        RestClient restClient, CommandObservations observations) {
+                this.riotClient = riotClient;
+                this.watcher = watcher;
+                this.scoutCommand = scoutCommand;
+                this.restClient = restClient;
+                this.observations = observations;
+        }
+
+        @jakarta.annotation.PostConstruct
+        public void init() {
+                announcements = watcher.gameStarts()
+                                .flatMap(this::announce, ANNOUNCE_CONCURRENCY)
+                                .subscribe();
+        }
+
+        @jakarta.annotation.PreDestroy
+        public void close() {
+                if (announcements != null) {
+                        announcements.dispose();
+                }
+        }
+
+        @Override
+        public Mono<Void> onSlashCommandInteraction(ChatInputInteractionEvent event) {
+                // Already deferred by the dispatcher
+                Mono<Void> reply = Mono.defer(() -> {
+                                        String gameName = requiredOption(event, "gamename", "Game Name is required");
+                                        String tagLine = requiredOption(event, "tagline", "Tag Line is required")
+                                                        .replace("#", "");
+                                        Platform platform = Platform.resolve(
+                                                        event.getOption("region")
+                                                                        .flatMap(o -> o.getValue())
+                                                                        .map(v -> v.asString())
+                                                                        .orElse(null),
+                                                        tagLine, riotClient.defaultPlatform());
+                                        boolean stop = event.getOption("stop")
+                                                        .flatMap(o -> o.getValue())
+                                                        .map(v -> v.asBoolean())
+                                                        .orElse(false);
+                                        long channelId = event.getInteraction().getChannelId().asLong();
+                                        String riotId = gameName + " #" + tagLine;
+
+                                        return observations.step(COMMAND, "account",
+                                                        riotClient.getAccount(platform, gameName, tagLine))
+                                                        .switchIfEmpty(Mono.error(
+                                                                        new RuntimeException("Account not found")))
+                                                        .map(account -> {
+                                                                if (stop) {
+                                                                        return watcher.unwatch(platform,
+                                                                                        account.puuid(), channelId)
+                                                                                        ? "🛑 No longer watching **" + riotId + "** here."
+                                                                                        : "**" + riotId + "** is not watched in this channel.";
+                                                                }
+                                                                return watcher.watch(platform, account, channelId)
+                                                                                ? "👀 Watching **" + riotId
+                                                                                                + "**. I'll post here when they start a game."
+                                                                                : "⚠️ The watch list is full, try again later.";
+                                                        });
+                                })
+                                .flatMap(message -> event.editReply(message))
+                                .then();
+                return observations.command(COMMAND, reply)
+                                .onErrorResume(e -> event.editReply("❌ Error: " + e.getMessage()).then())
+                                .then();
+        }
+
+        private static String requiredOption(ChatInputInteractionEvent event, String name, String errorMessage) {
+                return event.getOption(name)
+                                .flatMap(o -> o.getValue().map(v -> v.asString()))
+                                .orElseThrow(() -> new RuntimeException(errorMessage));
+        }
+
+        private Mono<Void> announce(LiveGameWatcher.GameStarted started) {
+                String riotId = started.account().gameName() + "#" + started.account().tagLine();
+                return scoutCommand.liveGameEmbed(started.platform(), started.account(), started.game())
+                                .map(embed -> MessageCreateRequest.builder()
+                                                .content("🎮 **" + riotId + "** just started a game!")
+                                                .addEmbed(embed.asRequest())
+                                                .build())
+                                .flatMapMany(message -> Flux.fromIterable(started.channelIds())
+                                                .flatMap(channelId -> restClient
+                                                                .getChannelById(Snowflake.of(channelId))
+                                                                .createMessage(message)
+                                                                .onErrorResume(e -> {
+                                                                        log.warn("Failed to post game start of {} to channel {}: {}",
+                                                                                        riotId, channelId, e.getMessage());
+                                                                        return Mono.empty();
+                                                                })))
+                                .then()
+                                .onErrorResume(e -> {
+                                        log.warn("Failed to analyze game start of {}: {}", riotId, e.getMessage());
+                                        return Mono.empty();
+                                })
+                                .contextWrite(RequestPriority.BACKGROUND.asContext());
+        }
+}
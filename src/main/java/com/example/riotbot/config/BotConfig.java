@@ -1,11 +1,14 @@
 package com.example.riotbot.config;
 
+import discord4j.core.DiscordClient;
 import discord4j.core.DiscordClientBuilder;
-import discord4j.core.GatewayDiscordClient;
 import discord4j.core.object.command.ApplicationCommandOption;
+import discord4j.core.shard.DefaultShardingStrategy;
+import discord4j.core.shard.GatewayBootstrap;
+import discord4j.core.shard.ShardingStrategy;
 import discord4j.discordjson.json.ApplicationCommandOptionData;
 import discord4j.discordjson.json.ApplicationCommandRequest;
-import discord4j.rest.RestClient;
+import discord4j.gateway.GatewayOptions;
 import com.example.riotbot.command.ScoutCommand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,16 +26,59 @@ public class BotConfig {
     @Value("${discord.token}")
     private String token;
 
+    /** Total gateway shards across all instances; 0 uses Discord's recommended count. */
+    @Value("${discord.shard.count:0}")
+    private int shardCount;
+
+    @Value("${discord.instance.index:0}")
+    private int instanceIndex;
+
+    @Value("${discord.instance.count:1}")
+    private int instanceCount;
+
+    /** REST side of the bot; usable (e.g. by /watch posts) without a gateway connection. */
     @Bean
-    public GatewayDiscordClient gatewayDiscordClient() {
-        return DiscordClientBuilder.create(token)
-                .build()
-                .login()
-                .block();
+    public DiscordClient discordClient() {
+        return DiscordClientBuilder.create(token).build();
     }
 
+    /**
+     * Gateway settings only: {@link com.example.riotbot.listener.BotStartupRunner}
+     * logs in in the background, so context startup never waits on Discord.
+     */
     @Bean
-    public RestClient restClient(GatewayDiscordClient client) {
-        return client.getRestClient();
+    public GatewayBootstrap<GatewayOptions> gatewayBootstrap(DiscordClient discordClient) {
+        return discordClient.gateway().setSharding(sharding());
+    }
+
+    /**
+     * Every instance is started with the same shard count and its own
+     * {@code discord.instance.index}; it connects only the shards whose
+     * index is congruent to its own modulo {@code discord.instance.count}.
+     * Discord routes each guild's interactions to the shard that owns the
+     * guild, so instances split the interaction load without coordinating.
+     * Several instances need an explicit shard count so they all agree on it.
+     */
+    private ShardingStrategy sharding() {
+        if (instanceCount < 1 || instanceIndex < 0 || instanceIndex >= instanceCount) {
+            throw new IllegalArgumentException("discord.instance.index must be in [0, discord.instance.count), was "
+                    + instanceIndex + " of " + instanceCount);
+        }
+        // Discord's recommended count is fetched by each instance and can change between their
+        // starts; instances that disagree on the count would drop or double-connect shards
+        if (instanceCount > 1 && shardCount < instanceCount) {
+            throw new IllegalArgumentException("discord.shard.count must be set to at least discord.instance.count ("
+                    + instanceCount + ") when running several instances, was " + shardCount);
+        }
+        DefaultShardingStrategy.Builder sharding = ShardingStrategy.builder();
+        if (shardCount > 0) {
+            sharding.count(shardCount);
+        }
+        if (instanceCount > 1) {
+            sharding.filter(shard -> shard.getIndex() % instanceCount == instanceIndex);
+        }
+        log.info("Gateway: instance {} of {}, {} shards in total", instanceIndex, instanceCount,
+                shardCount > 0 ? shardCount : "recommended");
+        return sharding.build();
     }
 }
@@ -0,0 +1,50 @@
+package com.example.riotbot.config;
+
+import com.example.riotbot.service.InMemorySharedCache;
+import com.example.riotbot.service.NoOpSharedCache;
+import com.example.riotbot.service.RedisSharedCache;
+import com.example.riotbot.service.SharedCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Picks the {@link SharedCache} from {@code riot.shared-cache.type}:
+ * {@code none} (default; a single instance has nothing to share),
+ * {@code redis}, for several instances splitting the gateway shards, or
+ * {@code memory}, a stand-in held by this instance for tests.
+ */
+@Configuration
+public class SharedCacheConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedCacheConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "riot.shared-cache.type", havingValue = "none", matchIfMissing = true)
+    public SharedCache noOpSharedCache(@Value("${discord.instance.count:1}") int instanceCount) {
+        if (instanceCount > 1) {
+            log.warn("{} instances without a shared cache each fetch what another already has; "
+                    + "set riot.shared-cache.type=redis", instanceCount);
+        }
+        return new NoOpSharedCache();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "riot.shared-cache.type", havingValue = "memory")
+    public SharedCache inMemorySharedCache(@Value("${riot.shared-cache.max-entries:20000}") int maxEntries) {
+        return new InMemorySharedCache(maxEntries);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "riot.shared-cache.type", havingValue = "redis")
+    public SharedCache redisSharedCache(@Value("${riot.shared-cache.redis.uri:redis://localhost:6379}") String uri,
+            @Value("${riot.shared-cache.redis.key-prefix:riotbot:}") String keyPrefix,
+            @Value("${riot.shared-cache.redis.timeout:200ms}") Duration timeout) {
+        return new RedisSharedCache(uri, keyPrefix, timeout);
+    }
+}
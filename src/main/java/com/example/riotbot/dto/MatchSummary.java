@@ -0,0 +1,229 @@
+package com.example.riotbot.dto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact projection of a match-v5 payload: only what the embeds and the
+ * win-rate analysis read, stored as primitive columns indexed by participant
+ * slot. Built straight from the JSON token stream, so a {@link MatchDto} tree
+ * is never materialized.
+ */
+public final class MatchSummary {
+
+    private final String matchId;
+    private final long gameEndTimestamp;
+    private final int gameDurationSeconds;
+    private final String gameMode;
+    private final String[] puuids;
+    private final int[] teamIds;
+    private final String[] championNames;
+    private final int[] kills;
+    private final int[] deaths;
+    private final int[] assists;
+    private final int[] damageDealt;
+    private final int[] damageTaken;
+    private final int[] minionsKilled;
+    private final int[] neutralMinionsKilled;
+    private final int[] goldEarned;
+    private final int[] visionScore;
+    private final int[] profileIcon;
+    private final long winMask;
+
+    public MatchSummary(String matchId, long gameEndTimestamp, int gameDurationSeconds, String gameMode,
+            String[] puuids, int[] teamIds, String[] championNames, int[] kills, int[] deaths, int[] assists,
+            int[] damageDealt, int[] damageTaken, int[] minionsKilled, int[] neutralMinionsKilled, int[] goldEarned,
+            int[] visionScore, int[] profileIcon, long winMask) {
+        this.matchId = matchId;
+        this.gameEndTimestamp = gameEndTimestamp;
+        this.gameDurationSeconds = gameDurationSeconds;
+        this.gameMode = gameMode;
+        this.puuids = puuids;
+        this.teamIds = teamIds;
+        this.championNames = championNames;
+        this.kills = kills;
+        this.deaths = deaths;
+        this.assists = assists;
+        this.damageDealt = damageDealt;
+        this.damageTaken = damageTaken;
+        this.minionsKilled = minionsKilled;
+        this.neutralMinionsKilled = neutralMinionsKilled;
+        this.goldEarned = goldEarned;
+        this.visionScore = visionScore;
+        this.profileIcon = profileIcon;
+        this.winMask = winMask;
+    }
+
+    public String matchId() {
+        return matchId;
+    }
+
+    public long gameEndTimestamp() {
+        return gameEndTimestamp;
+    }
+
+    public int gameDurationSeconds() {
+        return gameDurationSeconds;
+    }
+
+    public String gameMode() {
+        return gameMode;
+    }
+
+    public int participantCount() {
+        return puuids.length;
+    }
+
+    /** Slot of the given player, or -1 if they did not play in this match. */
+    public int indexOf(String puuid) {
+        for (int i = 0; i < puuids.length; i++) {
+            if (puuids[i].equals(puuid)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String puuid(int slot) {
+        return puuids[slot];
+    }
+
+    public int teamId(int slot) {
+        return teamIds[slot];
+    }
+
+    public String championName(int slot) {
+        return championNames[slot];
+    }
+
+    public int kills(int slot) {
+        return kills[slot];
+    }
+
+    public int deaths(int slot) {
+        return deaths[slot];
+    }
+
+    public int assists(int slot) {
+        return assists[slot];
+    }
+
+    public int damageDealt(int slot) {
+        return damageDealt[slot];
+    }
+
+    /** Champion damage dealt by the slot's whole team, the slot included. */
+    public int teamDamageDealt(int slot) {
+        int total = 0;
+        for (int i = 0; i < teamIds.length; i++) {
+            if (teamIds[i] == teamIds[slot]) {
+                total += damageDealt[i];
+            }
+        }
+        return total;
+    }
+
+    public int damageTaken(int slot) {
+        return damageTaken[slot];
+    }
+
+    public int totalCs(int slot) {
+        return minionsKilled[slot] + neutralMinionsKilled[slot];
+    }
+
+    public int goldEarned(int slot) {
+        return goldEarned[slot];
+    }
+
+    public int visionScore(int slot) {
+        return visionScore[slot];
+    }
+
+    public int profileIcon(int slot) {
+        return profileIcon[slot];
+    }
+
+    public boolean won(int slot) {
+        return (winMask & (1L << slot)) != 0;
+    }
+
+    /** Binary form used by the on-disk match store. */
+    public byte[] toBytes() {
+        byte[][] strings = new byte[2 + puuids.length * 2][];
+        strings[0] = utf8(matchId);
+        strings[1] = utf8(gameMode);
+        for (int i = 0; i < puuids.length; i++) {
+            strings[2 + i * 2] = utf8(puuids[i]);
+            strings[3 + i * 2] = utf8(championNames[i]);
+        }
+        int size = 8 + 4 + 8 + 4 + puuids.length * 11 * 4;
+        for (byte[] s : strings) {
+            size += 2 + s.length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        putString(out, strings[0]);
+        out.putLong(gameEndTimestamp);
+        out.putInt(gameDurationSeconds);
+        putString(out, strings[1]);
+        out.putLong(winMask);
+        out.putInt(puuids.length);
+        for (int i = 0; i < puuids.length; i++) {
+            putString(out, strings[2 + i * 2]);
+            putString(out, strings[3 + i * 2]);
+            out.putInt(teamIds[i]).putInt(kills[i]).putInt(deaths[i]).putInt(assists[i])
+                    .putInt(damageDealt[i]).putInt(damageTaken[i])
+                    .putInt(minionsKilled[i]).putInt(neutralMinionsKilled[i])
+                    .putInt(goldEarned[i]).putInt(visionScore[i]).putInt(profileIcon[i]);
+        }
+        return out.array();
+    }
+
+    public static MatchSummary fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        String matchId = getString(in);
+        long gameEndTimestamp = in.getLong();
+        int gameDurationSeconds = in.getInt();
+        String gameMode = getString(in);
+        long winMask = in.getLong();
+        int n = in.getInt();
+        String[] puuids = new String[n];
+        String[] championNames = new String[n];
+        int[] teamIds = new int[n];
+        int[] kills = new int[n], deaths = new int[n], assists = new int[n];
+        int[] damageDealt = new int[n], damageTaken = new int[n];
+        int[] minionsKilled = new int[n], neutralMinionsKilled = new int[n];
+        int[] goldEarned = new int[n], visionScore = new int[n], profileIcon = new int[n];
+        for (int i = 0; i < n; i++) {
+            puuids[i] = getString(in);
+            championNames[i] = getString(in);
+            teamIds[i] = in.getInt();
+            kills[i] = in.getInt();
+            deaths[i] = in.getInt();
+            assists[i] = in.getInt();
+            damageDealt[i] = in.getInt();
+            damageTaken[i] = in.getInt();
+            minionsKilled[i] = in.getInt();
+            neutralMinionsKilled[i] = in.getInt();
+            goldEarned[i] = in.getInt();
+            visionScore[i] = in.getInt();
+            profileIcon[i] = in.getInt();
+        }
+        return new MatchSummary(matchId, gameEndTimestamp, gameDurationSeconds, gameMode, puuids, teamIds,
+                championNames, kills, deaths, assists, damageDealt, damageTaken, minionsKilled, neutralMinionsKilled,
+                goldEarned, visionScore, profileIcon, winMask);
+    }
+
+    private static byte[] utf8(String s) {
+        return s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(ByteBuffer out, byte[] s) {
+        out.putShort((short) s.length).put(s);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] s = new byte[in.getShort() & 0xFFFF];
+        in.get(s);
+        return new String(s, StandardCharsets.UTF_8);
+    }
+}
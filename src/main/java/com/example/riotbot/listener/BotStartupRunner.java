@@ -2,30 +2,90 @@ package com.example.riotbot.listener;
 
 import discord4j.core.GatewayDiscordClient;
 import discord4j.core.event.domain.interaction.ChatInputInteractionEvent;
+import discord4j.core.shard.GatewayBootstrap;
 import discord4j.discordjson.json.*;
-import discord4j.rest.RestClient;
+import discord4j.gateway.GatewayOptions;
+import com.example.riotbot.command.ListenerAdapter;
 import com.example.riotbot.command.ScoutCommand;
+import com.example.riotbot.command.TeamScoutCommand;
+import com.example.riotbot.command.WatchCommand;
+import com.example.riotbot.service.Deadline;
+import com.example.riotbot.service.LookupCacheWarmer;
+import com.example.riotbot.service.MatchStore;
+import com.example.riotbot.service.Platform;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 
+/**
+ * Brings the bot up without holding up the Spring context: gateway login,
+ * slash command registration and the cache warm-up from local storage all
+ * start here and run in parallel in the background. Commands are served as
+ * soon as the gateway is connected; {@link StartupProgress} keeps readiness
+ * back until the warm-up is done.
+ */
 @Component
 public class BotStartupRunner implements CommandLineRunner {
 
-        private final GatewayDiscordClient client;
-        private final RestClient restClient;
+        private static final Logger log = LoggerFactory.getLogger(BotStartupRunner.class);
+
+        private static final java.time.Duration LOGOUT_TIMEOUT = java.time.Duration.ofSeconds(5);
+
+        private final GatewayBootstrap<GatewayOptions> gateway;
+        private final CommandRegistrar commandRegistrar;
         private final ScoutCommand scoutCommand;
+        private final WatchCommand watchCommand;
+        private final TeamScoutCommand teamScoutCommand;
+        private final CommandAdmission admission;
+        private final MatchStore matchStore;
+        private final LookupCacheWarmer lookupCacheWarmer;
+        private final StartupProgress startup;
+        private final int instanceIndex;
+        private final java.time.Duration commandBudget;
+        private final java.time.Duration warmupTimeout;
+        private volatile GatewayDiscordClient client;
 
-        public BotStartupRunner(GatewayDiscordClient client, RestClient restClient, ScoutCommand scoutCommand) {
-                this.client = client;
-                this.restClient = restClient;
+        public BotStartupRunner(GatewayBootstrap<GatewayOptions> gateway, CommandRegistrar commandRegistrar,
+                        ScoutCommand scoutCommand, WatchCommand watchCommand, TeamScoutCommand teamScoutCommand,
+                        CommandAdmission admission, MatchStore matchStore, LookupCacheWarmer lookupCacheWarmer,
+                        StartupProgress startup,
+                        @Value("${discord.instance.index:0}") int instanceIndex,
+                        @Value("${riot.resilience.command-budget:10s}") java.time.Duration commandBudget,
+                        @Value("${riot.startup.warmup-timeout:30s}") java.time.Duration warmupTimeout) {
+                this.gateway = gateway;
+                this.commandRegistrar = commandRegistrar;
                 this.scoutCommand = scoutCommand;
+                this.watchCommand = watchCommand;
+                this.teamScoutCommand = teamScoutCommand;
+                this.admission = admission;
+                this.matchStore = matchStore;
+                this.lookupCacheWarmer = lookupCacheWarmer;
+                this.startup = startup;
+                this.instanceIndex = instanceIndex;
+                this.commandBudget = commandBudget;
+                this.warmupTimeout = warmupTimeout;
         }
 
         @Override
         public void run(String... args) throws Exception {
+                long start = System.nanoTime();
+
+                // Warm-up first, it is what readiness waits for
+                warmUp(start);
+
+                gateway.login()
+                                .subscribe(connected -> {
+                                        client = connected;
+                                        listen(connected);
+                                        startup.phaseDone("gateway", since(start));
+                                }, startup::gatewayFailed);
+
                 // Register the Slash Command
                 final String commandName = "scout";
                 ApplicationCommandRequest scoutRequest = ApplicationCommandRequest.builder()
@@ -43,25 +103,148 @@ public class BotStartupRunner implements CommandLineRunner {
                                                 .type(3) // String
                                                 .required(true)
                                                 .build())
+                                .addOption(ApplicationCommandOptionData.builder()
+                                                .name("region")
+                                                .description("Server to look up (defaults to the tag's region)")
+                                                .type(3) // String
+                                                .required(false)
+                                                .choices(regionChoices())
+                                                .build())
+                                .build();
+
+                ApplicationCommandRequest watchRequest = ApplicationCommandRequest.builder()
+                                .name("watch")
+                                .description("Post the live game analysis here whenever a player starts a game.")
+                                .addOption(ApplicationCommandOptionData.builder()
+                                                .name("gamename")
+                                                .description("Riot ID Game Name")
+                                                .type(3) // String
+                                                .required(true)
+                                                .build())
+                                .addOption(ApplicationCommandOptionData.builder()
+                                                .name("tagline")
+                                                .description("Riot ID Tag Line")
+                                                .type(3) // String
+                                                .required(true)
+                                                .build())
+                                .addOption(ApplicationCommandOptionData.builder()
+                                                .name("region")
+                                                .description("Server to look up (defaults to the tag's region)")
+                                                .type(3) // String
+                                                .required(false)
+                                                .choices(regionChoices())
+                                                .build())
+                                .addOption(ApplicationCommandOptionData.builder()
+                                                .name("stop")
+                                                .description("Stop watching this player in this channel")
+                                                .type(5) // Boolean
+                                                .required(false)
+                                                .build())
                                 .build();
 
-                restClient.getApplicationService()
-                                .createGlobalApplicationCommand(restClient.getApplicationId().block(), scoutRequest)
+                ImmutableApplicationCommandRequest.Builder teamRequest = ApplicationCommandRequest.builder()
+                                .name("scout-team")
+                                .description("Rank, recent win rate and champion pool of up to 5 players.");
+                for (int i = 1; i <= 5; i++) {
+                        teamRequest.addOption(ApplicationCommandOptionData.builder()
+                                        .name("player" + i)
+                                        .description("Riot ID as Name#TAG")
+                                        .type(3) // String
+                                        .required(i == 1)
+                                        .build());
+                }
+                teamRequest.addOption(ApplicationCommandOptionData.builder()
+                                .name("region")
+                                .description("Server to look up (defaults to the first player's tag region)")
+                                .type(3) // String
+                                .required(false)
+                                .choices(regionChoices())
+                                .build());
+
+                // Commands are global, so with several instances only the first registers them
+                if (instanceIndex == 0) {
+                        commandRegistrar.register(List.of(scoutRequest, watchRequest, teamRequest.build()))
+                                        .subscribe(null,
+                                                        e -> log.warn("Command registration failed: {}", e.toString()),
+                                                        () -> startup.phaseDone("commands", since(start)));
+                }
+        }
+
+        @PreDestroy
+        public void stop() {
+                GatewayDiscordClient connected = client;
+                if (connected != null) {
+                        connected.logout().block(LOGOUT_TIMEOUT);
+                }
+        }
+
+        /**
+         * Opens the match store and re-resolves recently scouted players in
+         * parallel. Readiness waits for both, or for the warm-up timeout; the
+         * warm-up itself carries on past the timeout.
+         */
+        private void warmUp(long start) {
+                Mono<Void> warmup = Mono.when(matchStore.open(), lookupCacheWarmer.warm())
+                                .doOnSuccess(v -> startup.phaseDone("warmup", since(start)))
+                                .cache();
+                warmup.subscribe();
+                warmup.timeout(warmupTimeout)
+                                .onErrorResume(e -> {
+                                        log.warn("Warm-up still running after {}, accepting traffic", warmupTimeout);
+                                        return Mono.empty();
+                                })
+                                .doFinally(signal -> startup.warmedUp())
                                 .subscribe();
+        }
 
-                // Register the Event Listener
-                // Register the Event Listener
+        private void listen(GatewayDiscordClient client) {
+                // Register the Event Listener. Every interaction is deferred on arrival,
+                // well inside Discord's 3 s deadline, so it can then wait for admission;
+                // the admission queue is the bound, so events are never held back here
                 client.on(ChatInputInteractionEvent.class)
                                 .flatMap(event -> {
-                                        if (event.getCommandName().equals(commandName)) {
-                                                return scoutCommand.onSlashCommandInteraction(event)
-                                                                .doOnError(e -> System.err
-                                                                                .println("Error handling command: "
-                                                                                                + e.getMessage()))
-                                                                .onErrorResume(e -> Mono.empty());
+                                        ListenerAdapter command = switch (event.getCommandName()) {
+                                                case "scout" -> scoutCommand;
+                                                case "watch" -> watchCommand;
+                                                case "scout-team" -> teamScoutCommand;
+                                                default -> null;
+                                        };
+                                        if (command == null) {
+                                                return Mono.empty();
                                         }
-                                        return Mono.empty();
-                                })
+                                        long guildId = event.getInteraction().getGuildId()
+                                                        .map(id -> id.asLong())
+                                                        .orElse(CommandAdmission.NO_GUILD);
+                                        long userId = event.getInteraction().getUser().getId().asLong();
+                                        // Riot calls get what is left of the budget when they start
+                                        Deadline deadline = new Deadline(
+                                                        event.getInteraction().getId().getTimestamp().plus(commandBudget));
+                                        return event.deferReply()
+                                                        .then(admission.submit(guildId, userId,
+                                                                        level -> command.onSlashCommandInteraction(event)
+                                                                                        .contextWrite(level.asContext()
+                                                                                                        .putAll(deadline.asContext().readOnly()))))
+                                                        .doOnSuccess(v -> startup.commandServed())
+                                                        .onErrorResume(CommandAdmission.RejectedException.class,
+                                                                        e -> event.editReply(e.getMessage()).then())
+                                                        .doOnError(e -> log.error("Error handling command: {}",
+                                                                        e.getMessage()))
+                                                        .onErrorResume(e -> Mono.empty());
+                                }, Integer.MAX_VALUE)
                                 .subscribe();
         }
+
+        private static java.time.Duration since(long startNanos) {
+                return java.time.Duration.ofNanos(System.nanoTime() - startNanos);
+        }
+
+        private static List<ApplicationCommandOptionChoiceData> regionChoices() {
+                return java.util.Arrays.stream(Platform.values())
+                                .map(platform -> (ApplicationCommandOptionChoiceData) ApplicationCommandOptionChoiceData
+                                                .builder()
+                                                .name(platform.displayName())
+                                                .value(platform.name())
+                                                .build())
+                                .toList();
+        }
 }
@@ -0,0 +1,256 @@
+package com.example.riotbot.listener;
+
+import com.example.riotbot.service.LoadLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Admission control for slash commands.
+ *
+ * At most {@code riot.admission.max-in-flight} commands run at once; the rest
+ * wait in a queue that is served round-robin across guilds and, within a
+ * guild, across users, so one spamming user or server cannot starve the
+ * others. As the backlog grows, commands start at a lower {@link LoadLevel}
+ * ({@code reduce-at}, {@code cached-only-at}) and finish faster. A command
+ * is rejected only when the whole queue ({@code max-queued}) or the user's
+ * share of it ({@code max-queued-per-user}) is full.
+ */
+@Component
+public class CommandAdmission {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandAdmission.class);
+
+    /** Guild ID to submit for commands used in DMs. */
+    public static final long NO_GUILD = 0;
+
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final int maxQueuedPerUser;
+    private final int reduceAt;
+    private final int cachedOnlyAt;
+    private final Map<Long, Map<Long, Deque<Waiting>>> queues = new LinkedHashMap<>();
+    private final Map<LoadLevel, Counter> admitted = new EnumMap<>(LoadLevel.class);
+    private final Counter rejected;
+    private int inFlight;
+    private int queued;
+
+    public CommandAdmission(MeterRegistry meterRegistry,
+            @Value("${riot.admission.max-in-flight:32}") int maxInFlight,
+            @Value("${riot.admission.max-queued:200}") int maxQueued,
+            @Value("${riot.admission.max-queued-per-user:2}") int maxQueuedPerUser,
+            @Value("${riot.admission.reduce-at:20}") int reduceAt,
+            @Value("${riot.admission.cached-only-at:100}") int cachedOnlyAt) {
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.maxQueuedPerUser = maxQueuedPerUser;
+        this.reduceAt = reduceAt;
+        this.cachedOnlyAt = cachedOnlyAt;
+        for (LoadLevel level : LoadLevel.values()) {
+            admitted.put(level, Counter.builder("bot.admission.commands")
+                    .description("Slash commands by admission outcome")
+                    .tag("outcome", level.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                    .register(meterRegistry));
+        }
+        this.rejected = Counter.builder("bot.admission.commands")
+                .description("Slash commands by admission outcome")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("bot.admission.inflight", this, CommandAdmission::inFlight)
+                .description("Slash commands running")
+                .register(meterRegistry);
+        Gauge.builder("bot.admission.queued", this, CommandAdmission::queued)
+                .description("Slash commands waiting for a slot")
+                .register(meterRegistry);
+    }
+
+    /** A command refused because the backlog is full; the message is meant for the user. */
+    public static class RejectedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Runs {@code command} once a slot is free, at the load level the backlog
+     * calls for at that moment. Fails with {@link RejectedException} if the
+     * command cannot even be queued. {@code guildId} is {@link #NO_GUILD} in
+     * DMs.
+     */
+    public Mono<Void> submit(long guildId, long userId, Function<LoadLevel, Mono<Void>> command) {
+        return Mono.<Waiting>create(sink -> enqueue(new Waiting(guildId, userId, sink)))
+                .flatMap(waiting -> {
+                    if (!claim(waiting)) {
+                        return Mono.<Void>empty();
+                    }
+                    return command.apply(waiting.level)
+                            .doFinally(signal -> release());
+                });
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return queued;
+    }
+
+    private void enqueue(Waiting waiting) {
+        boolean startNow = false;
+        String rejection = null;
+        synchronized (this) {
+            if (inFlight < maxInFlight && queued == 0) {
+                inFlight++;
+                start(waiting);
+                startNow = true;
+            } else if (queued >= maxQueued) {
+                rejection = "⏳ The bot is overloaded right now. Please try again in a minute.";
+            } else {
+                Deque<Waiting> mine = queues
+                        .computeIfAbsent(waiting.guildId, g -> new LinkedHashMap<>())
+                        .computeIfAbsent(waiting.userId, u -> new ArrayDeque<>());
+                if (mine.size() >= maxQueuedPerUser) {
+                    rejection = "⏳ You already have " + mine.size()
+                            + " commands waiting. Please let them finish first.";
+                } else {
+                    mine.addLast(waiting);
+                    queued++;
+                }
+            }
+        }
+        if (startNow) {
+            waiting.sink.success(waiting);
+        } else if (rejection != null) {
+            rejected.increment();
+            log.debug("Rejected command of user {} in guild {}: {}", waiting.userId, waiting.guildId, rejection);
+            waiting.sink.error(new RejectedException(rejection));
+        } else {
+            waiting.sink.onCancel(() -> cancel(waiting));
+        }
+    }
+
+    /** Hands the waiting command a slot and picks its level. Caller locks. */
+    private void start(Waiting waiting) {
+        waiting.started = true;
+        waiting.level = level();
+        admitted.get(waiting.level).increment();
+    }
+
+    /**
+     * True if the command should run. A command cancelled after it was handed
+     * a slot, but before it ran, gives the slot back instead; whichever of
+     * the two happens first decides.
+     */
+    private synchronized boolean claim(Waiting waiting) {
+        if (waiting.claimed) {
+            return false;
+        }
+        waiting.claimed = true;
+        return true;
+    }
+
+    private void release() {
+        Waiting next;
+        synchronized (this) {
+            next = poll();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+            // The slot passes straight to the next command
+            start(next);
+        }
+        next.sink.success(next);
+    }
+
+    private void cancel(Waiting waiting) {
+        synchronized (this) {
+            if (waiting.started) {
+                if (waiting.claimed) {
+                    return;
+                }
+                waiting.claimed = true;
+            } else {
+                Map<Long, Deque<Waiting>> guild = queues.get(waiting.guildId);
+                Deque<Waiting> mine = guild == null ? null : guild.get(waiting.userId);
+                if (mine != null && mine.remove(waiting)) {
+                    queued--;
+                    if (mine.isEmpty()) {
+                        guild.remove(waiting.userId);
+                        if (guild.isEmpty()) {
+                            queues.remove(waiting.guildId);
+                        }
+                    }
+                }
+                return;
+            }
+        }
+        release();
+    }
+
+    /** Next waiting command: the first guild in rotation, its first user in rotation. Caller locks. */
+    private Waiting poll() {
+        Iterator<Map.Entry<Long, Map<Long, Deque<Waiting>>>> guilds = queues.entrySet().iterator();
+        if (!guilds.hasNext()) {
+            return null;
+        }
+        Map.Entry<Long, Map<Long, Deque<Waiting>>> guild = guilds.next();
+        guilds.remove();
+        Iterator<Map.Entry<Long, Deque<Waiting>>> users = guild.getValue().entrySet().iterator();
+        Map.Entry<Long, Deque<Waiting>> user = users.next();
+        users.remove();
+        Waiting next = user.getValue().pollFirst();
+        queued--;
+        // Served guild and user go to the back of their rotations
+        if (!user.getValue().isEmpty()) {
+            guild.getValue().put(user.getKey(), user.getValue());
+        }
+        if (!guild.getValue().isEmpty()) {
+            queues.put(guild.getKey(), guild.getValue());
+        }
+        return next;
+    }
+
+    /** Caller locks. */
+    private LoadLevel level() {
+        if (queued >= cachedOnlyAt) {
+            return LoadLevel.CACHED_ONLY;
+        }
+        return queued >= reduceAt ? LoadLevel.REDUCED : LoadLevel.NORMAL;
+    }
+
+    /** Mutable; guarded by the admission lock. */
+    private static final class Waiting {
+        final long guildId;
+        final long userId;
+        final MonoSink<Waiting> sink;
+        boolean started;
+        boolean claimed;
+        LoadLevel level;
+
+        Waiting(long guildId, long userId, MonoSink<Waiting> sink) {
+            this.guildId = guildId;
+            this.userId = userId;
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.riotbot.listener;
+
+import discord4j.discordjson.json.ApplicationCommandData;
+import discord4j.discordjson.json.ApplicationCommandOptionData;
+import discord4j.discordjson.json.ApplicationCommandRequest;
+import discord4j.rest.RestClient;
+import discord4j.rest.service.ApplicationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Registers the bot's global slash commands by diffing them against the
+ * ones Discord already has: a command is created if missing, edited if its
+ * definition changed and deleted if no longer defined. A deploy that
+ * changes no command costs a single list call, where upserting every
+ * command on every boot ran into the global command rate limit.
+ *
+ * Definitions are compared on what Discord keeps of them (type, name,
+ * description, options and their choices), since the returned data fills
+ * in defaults a request leaves out.
+ */
+@Component
+public class CommandRegistrar {
+
+    private static final Logger log = LoggerFactory.getLogger(CommandRegistrar.class);
+
+    /** Discord's command type for slash commands, the default when a request sets none. */
+    private static final int CHAT_INPUT = 1;
+
+    private final RestClient restClient;
+
+    public CommandRegistrar(RestClient restClient) {
+        this.restClient = restClient;
+    }
+
+    /** Brings the global commands in line with {@code requests}; completes once Discord has them. */
+    public Mono<Void> register(List<ApplicationCommandRequest> requests) {
+        ApplicationService applications = restClient.getApplicationService();
+        return restClient.getApplicationId()
+                .flatMap(applicationId -> applications.getGlobalApplicationCommands(applicationId)
+                        .collectMap(ApplicationCommandData::name)
+                        .flatMap(existing -> {
+                            List<Mono<?>> changes = new ArrayList<>();
+                            for (ApplicationCommandRequest request : requests) {
+                                ApplicationCommandData current = existing.get(request.name());
+                                if (current == null) {
+                                    log.info("Creating global command /{}", request.name());
+                                    changes.add(applications.createGlobalApplicationCommand(applicationId, request));
+                                } else if (!Shape.of(request).equals(Shape.of(current))) {
+                                    log.info("Updating global command /{}", request.name());
+                                    changes.add(applications.modifyGlobalApplicationCommand(applicationId,
+                                            current.id().asLong(), request));
+                                }
+                            }
+                            Set<String> defined = requests.stream()
+                                    .map(ApplicationCommandRequest::name)
+                                    .collect(Collectors.toSet());
+                            for (ApplicationCommandData current : existing.values()) {
+                                if (!defined.contains(current.name())) {
+                                    log.info("Deleting global command /{}", current.name());
+                                    changes.add(applications.deleteGlobalApplicationCommand(applicationId,
+                                            current.id().asLong()));
+                                }
+                            }
+                            if (changes.isEmpty()) {
+                                log.info("Global commands up to date ({} commands)", requests.size());
+                            }
+                            // One at a time: these calls share a small rate limit bucket
+                            return Flux.concat(changes).then();
+                        }));
+    }
+
+    /** The parts of a command definition Discord keeps, with defaults filled in. */
+    private record Shape(int type, String name, String description, List<OptionShape> options) {
+
+        static Shape of(ApplicationCommandRequest request) {
+            return new Shape(request.type().toOptional().orElse(CHAT_INPUT), request.name(),
+                    request.description().toOptional().orElse(""),
+                    OptionShape.of(request.options().toOptional().orElse(List.of())));
+        }
+
+        static Shape of(ApplicationCommandData data) {
+            return new Shape(data.type().toOptional().orElse(CHAT_INPUT), data.name(), data.description(),
+                    OptionShape.of(data.options().toOptional().orElse(List.of())));
+        }
+    }
+
+    private record OptionShape(int type, String name, String description, boolean required,
+            List<Map.Entry<String, String>> choices, List<OptionShape> options) {
+
+        static List<OptionShape> of(List<ApplicationCommandOptionData> options) {
+            return options.stream()
+                    .map(option -> new OptionShape(option.type(), option.name(), option.description(),
+                            option.required().toOptional().orElse(false),
+                            option.choices().toOptional().orElse(List.of()).stream()
+                                    .map(choice -> Map.entry(choice.name(), String.valueOf(choice.value())))
+                                    .toList(),
+                            of(option.options().toOptional().orElse(List.of()))))
+                    .toList();
+        }
+    }
+}
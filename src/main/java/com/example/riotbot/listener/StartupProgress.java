@@ -0,0 +1,90 @@
+package com.example.riotbot.listener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the bot's startup, which runs in the background once the context
+ * is up (see {@link BotStartupRunner}): gateway login, command registration
+ * and cache warm-up each record how long they took in
+ * {@code bot.startup{phase}}, and {@code phase=first-command} is the time
+ * from JVM start to the first slash command served.
+ *
+ * Readiness stays at {@code REFUSING_TRAFFIC} until the warm-up is done, so
+ * a rolling deploy only moves on once this instance's caches are loaded. A
+ * failed gateway login marks liveness {@code BROKEN}: without it the bot
+ * cannot receive a single command.
+ */
+@Component
+public class StartupProgress {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupProgress.class);
+
+    private final ApplicationEventPublisher publisher;
+    private final MeterRegistry meterRegistry;
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicBoolean firstCommandServed = new AtomicBoolean();
+    private boolean contextReady;
+    private boolean warmedUp;
+
+    public StartupProgress(ApplicationEventPublisher publisher, MeterRegistry meterRegistry) {
+        this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void phaseDone(String phase, Duration took) {
+        Timer.builder("bot.startup")
+                .description("Time taken by each startup phase; first-command is counted from JVM start")
+                .tag("phase", phase)
+                .register(meterRegistry)
+                .record(took);
+        log.info("Startup: {} done in {} ms", phase, took.toMillis());
+    }
+
+    public void commandServed() {
+        if (firstCommandServed.compareAndSet(false, true)) {
+            phaseDone("first-command", Duration.ofMillis(System.currentTimeMillis() - jvmStartMillis));
+        }
+    }
+
+    /** The warm-up finished or gave up; the instance may take traffic. */
+    public synchronized void warmedUp() {
+        warmedUp = true;
+        // Before the context is ready Spring Boot still flips readiness itself
+        if (contextReady) {
+            AvailabilityChangeEvent.publish(publisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    public void gatewayFailed(Throwable error) {
+        log.error("Gateway login failed, marking the bot as broken", error);
+        AvailabilityChangeEvent.publish(publisher, this, LivenessState.BROKEN);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onContextReady() {
+        contextReady = true;
+    }
+
+    /** Spring Boot declares readiness once the context is up; hold it back until warmed up. */
+    @EventListener
+    public synchronized void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !warmedUp) {
+            log.info("Refusing traffic until the cache warm-up finishes");
+            AvailabilityChangeEvent.publish(publisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.riotbot.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Hit/miss counters of one cache, published as
+ * {@code riot.cache.requests{cache, result}} so the hit ratio can be derived
+ * per cache. {@code result} is {@code hit}, {@code stale} (served, refreshed
+ * in the background), {@code miss} or {@code fallback} (a miss whose load
+ * failed, answered with an expired entry instead).
+ */
+public final class CacheMetrics {
+
+    /** Records nothing; for caches created outside of Spring. */
+    public static final CacheMetrics NONE = new CacheMetrics("none", new CompositeMeterRegistry());
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter fallbacks;
+
+    public CacheMetrics(String cache, MeterRegistry registry) {
+        this.hits = counter(cache, "hit", registry);
+        this.staleHits = counter(cache, "stale", registry);
+        this.misses = counter(cache, "miss", registry);
+        this.fallbacks = counter(cache, "fallback", registry);
+    }
+
+    private static Counter counter(String cache, String result, MeterRegistry registry) {
+        return Counter.builder("riot.cache.requests")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public void hit() {
+        hits.increment();
+    }
+
+    public void staleHit() {
+        staleHits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public void fallback() {
+        fallbacks.increment();
+    }
+}
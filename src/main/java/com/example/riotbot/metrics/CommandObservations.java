@@ -0,0 +1,63 @@
+package com.example.riotbot.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Observations for slash command pipelines: {@code bot.command{command}} for
+ * the whole command and {@code bot.command.step{command, step}} for each
+ * stage inside it. With the default handlers these become timers (plus an
+ * {@code error} tag); a tracing bridge would turn them into parent and child
+ * spans, which is why the command observation is carried in the Reactor
+ * context.
+ */
+@Component
+public class CommandObservations {
+
+    private final ObservationRegistry registry;
+
+    public CommandObservations(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> Mono<T> command(String command, Mono<T> source) {
+        return Mono.defer(() -> {
+            Observation observation = Observation.createNotStarted("bot.command", registry)
+                    .lowCardinalityKeyValue("command", command)
+                    .start();
+            return source
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(ctx -> ctx.put(Observation.class, observation));
+        });
+    }
+
+    public <T> Mono<T> step(String command, String step, Mono<T> source) {
+        return Mono.deferContextual(ctx -> {
+            Observation observation = start(command, step, ctx.getOrDefault(Observation.class, null));
+            return source
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop());
+        });
+    }
+
+    public <T> Flux<T> step(String command, String step, Flux<T> source) {
+        return Flux.deferContextual(ctx -> {
+            Observation observation = start(command, step, ctx.getOrDefault(Observation.class, null));
+            return source
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop());
+        });
+    }
+
+    private Observation start(String command, String step, Observation parent) {
+        return Observation.createNotStarted("bot.command.step", registry)
+                .lowCardinalityKeyValue("command", command)
+                .lowCardinalityKeyValue("step", step)
+                .parentObservation(parent)
+                .start();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.riotbot.metrics;
+
+import com.example.riotbot.service.RiotRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Times every outgoing Riot and Data Dragon call as
+ * {@code riot.api.requests{region, endpoint, status}}.
+ *
+ * Registered inside {@link RiotRateLimiter}, so each attempt is timed on its
+ * own (a 429 and its retry are two samples) and time spent waiting for a
+ * rate limit permit is not counted; that backlog shows up in the
+ * {@code riot.ratelimit.queue.depth} gauge instead.
+ */
+@Component
+public class RiotApiMetrics implements ExchangeFilterFunction {
+
+    private static final String RIOT_API_HOST_SUFFIX = ".api.riotgames.com";
+
+    private final MeterRegistry registry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public RiotApiMetrics(MeterRegistry registry, RiotRateLimiter rateLimiter) {
+        this.registry = registry;
+        Gauge.builder("riot.api.inflight", inFlight, AtomicInteger::get)
+                .description("Riot API requests sent and awaiting a response")
+                .register(registry);
+        Gauge.builder("riot.ratelimit.queue.depth", rateLimiter, RiotRateLimiter::queueDepth)
+                .description("Riot API requests waiting for a rate limit permit")
+                .register(registry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+            return next.exchange(request)
+                    .doOnNext(response -> record(request, String.valueOf(response.statusCode().value()), start))
+                    .doOnError(e -> record(request, "IO_ERROR", start))
+                    .doOnCancel(() -> record(request, "CANCELLED", start))
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private void record(ClientRequest request, String status, long start) {
+        Timer.builder("riot.api.requests")
+                .tag("region", region(request.url().getHost()))
+                .tag("endpoint", request.attribute(RiotRateLimiter.ENDPOINT_ATTRIBUTE)
+                        .map(Object::toString)
+                        .orElse("unknown"))
+                .tag("status", status)
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /** Routing value of a Riot host ("na1", "americas"); other hosts are tagged as is. */
+    private static String region(String host) {
+        if (host == null) {
+            return "unknown";
+        }
+        return host.endsWith(RIOT_API_HOST_SUFFIX)
+                ? host.substring(0, host.length() - RIOT_API_HOST_SUFFIX.length())
+                : host;
+    }
+}
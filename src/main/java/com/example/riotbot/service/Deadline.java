@@ -0,0 +1,26 @@
+package com.example.riotbot.service;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Point in time by which a slash command wants its answer, carried in the
+ * Reactor context. {@link RiotResilience} bounds every Riot call, retries
+ * included, by the time left; work without a deadline (warm-ups, /watch
+ * polling) is bounded by the HTTP response timeout alone.
+ */
+public record Deadline(Instant at) {
+
+    public Context asContext() {
+        return Context.of(Deadline.class, this);
+    }
+
+    /** Time left before the deadline in the context, or null if there is none. */
+    public static Duration remaining(ContextView context) {
+        Deadline deadline = context.getOrDefault(Deadline.class, null);
+        return deadline == null ? null : Duration.between(Instant.now(), deadline.at);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.riotbot.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the players our servers scout most often warm before anyone asks.
+ *
+ * Every scout bumps the player's score, which decays with a half-life of
+ * {@code riot.prewarm.half-life}, so the tracked set follows who is scouted
+ * often and recently. Each tick polls the players that are due: their match
+ * ID list and the new matches in it, their live-game status and their rank.
+ * The hottest player is polled every {@code min-interval}, colder ones less
+ * often down to {@code max-interval}.
+ *
+ * Polling only uses spare budget: requests run at
+ * {@link RequestPriority#BACKGROUND}, and a player is skipped (and retried
+ * next tick) unless {@link RiotRateLimiter} reports its hosts below
+ * {@code riot.prewarm.max-budget-usage} with nothing queued.
+ */
+@Component
+public class HotPlayerPrewarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(HotPlayerPrewarmer.class);
+
+    /** Same depth as the history /scout reads, so a warmed player needs no IDs call. */
+    public static final int HISTORY_SIZE = 10;
+    private static final int MATCH_FETCH_CONCURRENCY = 2;
+
+    private final RiotClient riotClient;
+    private final MatchHistoryService matchHistory;
+    private final RiotRateLimiter rateLimiter;
+    private final boolean enabled;
+    private final int maxPlayers;
+    private final double halfLifeMillis;
+    private final Duration tick;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final double maxBudgetUsage;
+    private final Map<String, HotPlayer> players = new HashMap<>();
+    private final Counter skipped;
+    private Disposable ticker;
+
+    public HotPlayerPrewarmer(RiotClient riotClient, MatchHistoryService matchHistory, RiotRateLimiter rateLimiter,
+            MeterRegistry meterRegistry,
+            @Value("${riot.prewarm.enabled:true}") boolean enabled,
+            @Value("${riot.prewarm.max-players:500}") int maxPlayers,
+            @Value("${riot.prewarm.half-life:24h}") Duration halfLife,
+            @Value("${riot.prewarm.tick:15s}") Duration tick,
+            @Value("${riot.prewarm.min-interval:1m}") Duration minInterval,
+            @Value("${riot.prewarm.max-interval:30m}") Duration maxInterval,
+            @Value("${riot.prewarm.max-budget-usage:0.5}") double maxBudgetUsage,
+            @Value("${riot.cache.live.fresh:90s}") Duration liveGameFresh) {
+        this.riotClient = riotClient;
+        this.matchHistory = matchHistory;
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.maxPlayers = maxPlayers;
+        this.halfLifeMillis = halfLife.toMillis();
+        this.tick = tick;
+        this.minIntervalMillis = minInterval.toMillis();
+        this.maxIntervalMillis = Math.max(maxInterval.toMillis(), minIntervalMillis);
+        this.maxBudgetUsage = maxBudgetUsage;
+        if (liveGameFresh.compareTo(minInterval) <= 0) {
+            log.warn("riot.cache.live.fresh ({}) is not longer than riot.prewarm.min-interval ({}); "
+                    + "the hottest players' live status will lapse between polls", liveGameFresh, minInterval);
+        }
+        this.skipped = Counter.builder("riot.prewarm.skipped")
+                .description("Due pre-warm polls postponed for lack of spare rate limit budget")
+                .register(meterRegistry);
+        Gauge.builder("riot.prewarm.players", this, HotPlayerPrewarmer::trackedPlayers)
+                .description("Players tracked by the pre-warmer")
+                .register(meterRegistry);
+    }
+
+    /** Records one scout of the player; the first one makes them tracked. */
+    public void recordScout(Platform platform, String puuid) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String key = platform.name() + ":" + puuid;
+        synchronized (players) {
+            HotPlayer player = players.get(key);
+            if (player == null) {
+                if (players.size() >= maxPlayers) {
+                    evictColdest(now);
+                }
+                // Just scouted, so everything is fresh; first poll once that wears off
+                player = new HotPlayer(platform, puuid, now + minIntervalMillis);
+                players.put(key, player);
+            }
+            player.score = decayed(player, now) + 1;
+            player.scoredAt = now;
+        }
+    }
+
+    public int trackedPlayers() {
+        synchronized (players) {
+            return players.size();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // One poll at a time; ticks that arrive while a poll runs are dropped
+        ticker = Flux.interval(tick, tick)
+                .onBackpressureDrop()
+                .concatMap(t -> poll(), 0)
+                .subscribe(null, e -> log.warn("Pre-warmer stopped: {}", e.toString()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+    }
+
+    private Mono<Void> poll() {
+        List<HotPlayer> due = duePlayers(System.currentTimeMillis());
+        return Flux.fromIterable(due)
+                .concatMap(player -> Mono.defer(() -> {
+                    if (!hasSpareBudget(player.platform)) {
+                        skipped.increment();
+                        return Mono.empty();
+                    }
+                    return warm(player);
+                }))
+                .then()
+                .contextWrite(RequestPriority.BACKGROUND.asContext());
+    }
+
+    private boolean hasSpareBudget(Platform platform) {
+        return rateLimiter.hasSpareCapacity(platform.host(), maxBudgetUsage)
+                && rateLimiter.hasSpareCapacity(platform.region().host(), maxBudgetUsage);
+    }
+
+    private Mono<Void> warm(HotPlayer player) {
+        Mono<Void> history = matchHistory.recentMatchIds(player.platform, player.puuid, HISTORY_SIZE)
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(riotClient::getMatchSummary, MATCH_FETCH_CONCURRENCY)
+                .then();
+        Mono<Void> liveGame = riotClient.getLiveGame(player.platform, player.puuid).then();
+        Mono<Void> rank = riotClient.getSummoner(player.platform, player.puuid)
+                .flatMapMany(summoner -> riotClient.getLeagueEntries(player.platform, summoner.id()))
+                .then();
+        return Mono.when(history, liveGame, rank)
+                .onErrorResume(e -> {
+                    log.debug("Pre-warm of {} failed: {}", player.puuid, e.toString());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> reschedule(player));
+    }
+
+    /** Due players, hottest first. */
+    private List<HotPlayer> duePlayers(long now) {
+        synchronized (players) {
+            List<HotPlayer> due = new ArrayList<>();
+            for (HotPlayer player : players.values()) {
+                if (player.nextPollAt <= now) {
+                    due.add(player);
+                }
+            }
+            due.sort(Comparator.comparingDouble((HotPlayer p) -> decayed(p, now)).reversed());
+            return due;
+        }
+    }
+
+    /** Polls in proportion to heat: the hottest player every min-interval, colder ones less often. */
+    private void reschedule(HotPlayer player) {
+        long now = System.currentTimeMillis();
+        synchronized (players) {
+            double hottest = 0;
+            for (HotPlayer other : players.values()) {
+                hottest = Math.max(hottest, decayed(other, now));
+            }
+            double score = Math.max(decayed(player, now), 1e-9);
+            long interval = (long) Math.min(maxIntervalMillis, minIntervalMillis * (hottest / score));
+            player.nextPollAt = now + Math.max(minIntervalMillis, interval);
+        }
+    }
+
+    private void evictColdest(long now) {
+        String coldest = null;
+        double coldestScore = Double.MAX_VALUE;
+        for (Map.Entry<String, HotPlayer> entry : players.entrySet()) {
+            double score = decayed(entry.getValue(), now);
+            if (score < coldestScore) {
+                coldestScore = score;
+                coldest = entry.getKey();
+            }
+        }
+        if (coldest != null) {
+            players.remove(coldest);
+        }
+    }
+
+    private double decayed(HotPlayer player, long now) {
+        return player.score * Math.pow(0.5, (now - player.scoredAt) / halfLifeMillis);
+    }
+
+    /** Mutable; guarded by the players map lock. */
+    private static final class HotPlayer {
+        final Platform platform;
+        final String puuid;
+        double score;
+        long scoredAt;
+        long nextPollAt;
+
+        HotPlayer(Platform platform, String puuid, long nextPollAt) {
+            this.platform = platform;
+            this.puuid = puuid;
+            this.nextPollAt = nextPollAt;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.riotbot.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link SharedCache} held in this JVM: bounded LRU with per-entry expiry.
+ * Shared by nothing but this instance, which already caches the same data,
+ * so it is only a stand-in for tests ({@code riot.shared-cache.type=memory}).
+ */
+public class InMemorySharedCache implements SharedCache {
+
+    private final Map<String, Entry> entries;
+
+    public InMemorySharedCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.fromSupplier(() -> {
+            synchronized (entries) {
+                Entry entry = entries.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expiresAt <= System.currentTimeMillis()) {
+                    entries.remove(key);
+                    return null;
+                }
+                return entry.value;
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration ttl) {
+        return Mono.fromRunnable(() -> {
+            synchronized (entries) {
+                entries.put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+            }
+        });
+    }
+
+    private record Entry(byte[] value, long expiresAt) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.riotbot.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for JSON arrays of strings, such as match-v5 ID lists
+ * ({@code ["NA1_1","NA1_2"]}) and Data Dragon's versions.json. Reads the
+ * body token by token, so the only strings created are the elements
+ * themselves; {@link #parseFirst} stops at the first one.
+ */
+public class JsonStringArrayParser {
+
+    private final JsonFactory jsonFactory;
+
+    public JsonStringArrayParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /** Every element, as match IDs interned by {@link MatchIdInterner}. */
+    public List<String> parseAll(InputStream json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return parseAll(parser);
+        }
+    }
+
+    public List<String> parseAll(byte[] json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return parseAll(parser);
+        }
+    }
+
+    /** The first element, or null if the array is empty. */
+    public String parseFirst(InputStream json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return parseFirst(parser);
+        }
+    }
+
+    public String parseFirst(byte[] json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return parseFirst(parser);
+        }
+    }
+
+    private static List<String> parseAll(JsonParser parser) throws IOException {
+        expectArray(parser);
+        List<String> values = new ArrayList<>();
+        String value;
+        while ((value = parser.nextTextValue()) != null) {
+            values.add(MatchIdInterner.intern(value));
+        }
+        expectEnd(parser);
+        return List.copyOf(values);
+    }
+
+    private static String parseFirst(JsonParser parser) throws IOException {
+        expectArray(parser);
+        String first = parser.nextTextValue();
+        if (first == null) {
+            expectEnd(parser);
+        }
+        return first;
+    }
+
+    private static void expectArray(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected a JSON array but got " + parser.currentToken());
+        }
+    }
+
+    private static void expectEnd(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new IOException("Expected only strings in the array but got " + parser.currentToken());
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.dto.AccountDto;
+import com.example.riotbot.dto.CurrentGameInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Watches players for the start of a live game on behalf of Discord
+ * channels ({@code /watch}).
+ *
+ * Each player is polled once per interval through spectator-v5 no matter
+ * how many channels watch them, so cost grows with watched players only.
+ * Intervals adapt to what the player is doing:
+ * <ul>
+ * <li>out of game: starts at {@code min-interval} and grows by 50% each
+ * idle poll up to {@code max-interval}, back to the minimum after a
+ * game ends, when a requeue is most likely;</li>
+ * <li>in game: {@code in-game-interval}, only to notice the game ending.</li>
+ * </ul>
+ * Every interval is jittered by ±{@code jitter} so polls of players added
+ * together spread out instead of arriving in bursts.
+ *
+ * A game is announced once per channel: when several players watched in
+ * one channel start the same game, only the first to be polled is reported
+ * there.
+ */
+@Component
+public class LiveGameWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveGameWatcher.class);
+
+    private static final double IDLE_BACKOFF = 1.5;
+    private static final int POLL_CONCURRENCY = 4;
+    // Game starts waiting for WatchCommand; beyond this they are dropped and logged
+    private static final int MAX_PENDING_STARTS = 256;
+
+    private final RiotClient riotClient;
+    private final int maxPlayers;
+    private final Duration tick;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final long inGameIntervalMillis;
+    private final double jitter;
+    private final Map<String, Watched> watched = new HashMap<>();
+    private final Set<String> announced;
+    private final Sinks.Many<GameStarted> gameStarts = Sinks.many().multicast()
+            .onBackpressureBuffer(MAX_PENDING_STARTS, false);
+    private Disposable ticker;
+
+    public LiveGameWatcher(RiotClient riotClient, MeterRegistry meterRegistry,
+            @Value("${riot.watch.max-players:500}") int maxPlayers,
+            @Value("${riot.watch.tick:5s}") Duration tick,
+            @Value("${riot.watch.min-interval:1m}") Duration minInterval,
+            @Value("${riot.watch.max-interval:5m}") Duration maxInterval,
+            @Value("${riot.watch.in-game-interval:5m}") Duration inGameInterval,
+            @Value("${riot.watch.jitter:0.2}") double jitter) {
+        this.riotClient = riotClient;
+        this.maxPlayers = maxPlayers;
+        this.tick = tick;
+        this.minIntervalMillis = minInterval.toMillis();
+        this.maxIntervalMillis = Math.max(maxInterval.toMillis(), minIntervalMillis);
+        this.inGameIntervalMillis = inGameInterval.toMillis();
+        this.jitter = jitter;
+        // Games recently announced per channel; a player is in at most one game at a time
+        int maxAnnounced = Math.max(maxPlayers, 1) * 4;
+        this.announced = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxAnnounced;
+            }
+        });
+        Gauge.builder("riot.watch.players", this, LiveGameWatcher::watchedPlayers)
+                .description("Players polled for live games on behalf of /watch")
+                .register(meterRegistry);
+    }
+
+    /** A watched player entered a new game; {@code channelIds} are the channels watching them. */
+    public record GameStarted(Platform platform, AccountDto account, CurrentGameInfo game, List<Long> channelIds) {
+    }
+
+    /**
+     * Game starts as they are detected. Starts detected while the subscriber
+     * is busy are buffered; none are replayed to late subscribers.
+     */
+    public Flux<GameStarted> gameStarts() {
+        return gameStarts.asFlux();
+    }
+
+    /**
+     * Adds the channel as a watcher of the player.
+     *
+     * @return false if the player is not watched yet and the watch list is full
+     */
+    public boolean watch(Platform platform, AccountDto account, long channelId) {
+        String key = key(platform, account.puuid());
+        synchronized (watched) {
+            Watched player = watched.get(key);
+            if (player == null) {
+                if (watched.size() >= maxPlayers) {
+                    return false;
+                }
+                // Poll soon so a game already in progress is reported (or ignored) right away
+                player = new Watched(platform, account, System.currentTimeMillis() + jittered(tick.toMillis()));
+                watched.put(key, player);
+            }
+            player.channelIds.add(channelId);
+            return true;
+        }
+    }
+
+    /** @return true if the channel was watching the player */
+    public boolean unwatch(Platform platform, String puuid, long channelId) {
+        String key = key(platform, puuid);
+        synchronized (watched) {
+            Watched player = watched.get(key);
+            if (player == null || !player.channelIds.remove(channelId)) {
+                return false;
+            }
+            if (player.channelIds.isEmpty()) {
+                watched.remove(key);
+            }
+            return true;
+        }
+    }
+
+    public int watchedPlayers() {
+        synchronized (watched) {
+            return watched.size();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // One round at a time; ticks that arrive while a round runs are dropped
+        ticker = Flux.interval(tick, tick)
+                .onBackpressureDrop()
+                .concatMap(t -> pollDue(), 0)
+                .subscribe(null, e -> log.warn("Live game watcher stopped: {}", e.toString()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+    }
+
+    private Mono<Void> pollDue() {
+        long now = System.currentTimeMillis();
+        List<Watched> due = new ArrayList<>();
+        synchronized (watched) {
+            for (Watched player : watched.values()) {
+                if (player.nextPollAt <= now) {
+                    due.add(player);
+                }
+            }
+        }
+        return Flux.fromIterable(due)
+                .flatMap(this::poll, POLL_CONCURRENCY)
+                .then()
+                .contextWrite(RequestPriority.BACKGROUND.asContext());
+    }
+
+    private Mono<Void> poll(Watched player) {
+        return riotClient.getLiveGame(player.platform, player.account.puuid())
+                .doOnNext(game -> onPolled(player, game.orElse(null)))
+                .onErrorResume(e -> {
+                    log.debug("Watch poll of {} failed: {}", player.account.puuid(), e.toString());
+                    synchronized (watched) {
+                        schedule(player, player.intervalMillis);
+                    }
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void onPolled(Watched player, CurrentGameInfo game) {
+        GameStarted started = null;
+        synchronized (watched) {
+            boolean firstPoll = !player.polled;
+            player.polled = true;
+            if (game == null) {
+                if (player.gameId != 0) {
+                    // Game just ended; a requeue is likely
+                    player.gameId = 0;
+                    player.intervalMillis = minIntervalMillis;
+                } else {
+                    player.intervalMillis = Math.min(maxIntervalMillis,
+                            (long) (player.intervalMillis * IDLE_BACKOFF));
+                }
+                schedule(player, player.intervalMillis);
+                return;
+            }
+            if (game.gameId() != player.gameId) {
+                player.gameId = game.gameId();
+                // A game already running when the watch started is not news
+                if (!firstPoll) {
+                    List<Long> channelIds = new ArrayList<>();
+                    for (long channelId : player.channelIds) {
+                        if (announced.add(player.platform + ":" + game.gameId() + ":" + channelId)) {
+                            channelIds.add(channelId);
+                        }
+                    }
+                    if (!channelIds.isEmpty()) {
+                        started = new GameStarted(player.platform, player.account, game, channelIds);
+                    }
+                }
+            }
+            player.intervalMillis = minIntervalMillis;
+            schedule(player, inGameIntervalMillis);
+        }
+        if (started != null) {
+            Sinks.EmitResult result;
+            // Polls complete on several threads; the sink takes one emission at a time
+            synchronized (gameStarts) {
+                result = gameStarts.tryEmitNext(started);
+            }
+            if (result.isFailure()) {
+                log.warn("Dropped game start of {} in game {}: {}", player.account.puuid(), started.game().gameId(),
+                        result);
+            }
+        }
+    }
+
+    private void schedule(Watched player, long intervalMillis) {
+        player.nextPollAt = System.currentTimeMillis() + jittered(intervalMillis);
+    }
+
+    private long jittered(long millis) {
+        double factor = 1 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * jitter;
+        return (long) (millis * factor);
+    }
+
+    private static String key(Platform platform, String puuid) {
+        return platform.name() + ":" + puuid;
+    }
+
+    /** Mutable; guarded by the watched map lock. */
+    private final class Watched {
+        final Platform platform;
+        final AccountDto account;
+        final Set<Long> channelIds = new LinkedHashSet<>();
+        long gameId;
+        boolean polled;
+        long nextPollAt;
+        long intervalMillis = minIntervalMillis;
+
+        Watched(Platform platform, AccountDto account, long nextPollAt) {
+            this.platform = platform;
+            this.account = account;
+            this.nextPollAt = nextPollAt;
+        }
+    }
+}
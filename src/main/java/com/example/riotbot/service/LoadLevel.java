@@ -0,0 +1,40 @@
+package com.example.riotbot.service;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * How much work a slash command may do, chosen by admission control from the
+ * command backlog when the command starts. Travels in the Reactor context;
+ * work without one runs at {@link #NORMAL}.
+ * <ul>
+ * <li>{@code NORMAL}: full replies;</li>
+ * <li>{@code REDUCED}: optional fan-out (enemy analysis) is skipped;</li>
+ * <li>{@code CACHED_ONLY}: also answered from cached data only; stale entries
+ * are served without a refresh and anything else fails with
+ * {@link CachedOnlyException} instead of calling Riot.</li>
+ * </ul>
+ */
+public enum LoadLevel {
+    NORMAL,
+    REDUCED,
+    CACHED_ONLY;
+
+    public Context asContext() {
+        return Context.of(LoadLevel.class, this);
+    }
+
+    public static LoadLevel of(ContextView context) {
+        return context.getOrDefault(LoadLevel.class, NORMAL);
+    }
+
+    /** A lookup needed Riot while the command was limited to cached data. */
+    public static class CachedOnlyException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public CachedOnlyException() {
+            super("Not cached, and the bot is too busy to ask Riot right now. Please try again shortly.");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.riotbot.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps the account/summoner/league caches warm across restarts. The Riot
+ * IDs looked up most recently are written to {@code riot.cache.recent-file}
+ * periodically and on shutdown; on startup ({@link #warm}, part of the
+ * startup warm-up) they are re-resolved at background priority so the first
+ * scouts after a deploy hit the cache.
+ */
+@Component
+public class LookupCacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(LookupCacheWarmer.class);
+
+    private static final Duration SAVE_INTERVAL = Duration.ofMinutes(5);
+    private static final int WARM_CONCURRENCY = 2;
+
+    private final RiotClient riotClient;
+    private final WorkSchedulers workSchedulers;
+    private final Path recentFile;
+    private final int maxRecent;
+    private Disposable periodicSave;
+
+    public LookupCacheWarmer(RiotClient riotClient, WorkSchedulers workSchedulers,
+            @Value("${riot.cache.recent-file:data/recent-riot-ids.txt}") String recentFile,
+            @Value("${riot.cache.recent-max:200}") int maxRecent) {
+        this.riotClient = riotClient;
+        this.workSchedulers = workSchedulers;
+        this.recentFile = Paths.get(recentFile);
+        this.maxRecent = maxRecent;
+    }
+
+    /** Re-resolves the saved Riot IDs; completes when all are done, failures included. */
+    public Mono<Void> warm() {
+        return Mono.fromCallable(this::loadRecent)
+                .subscribeOn(workSchedulers.blocking())
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(line -> {
+                    // "gameName#tagLine@PLATFORM"
+                    int at = line.lastIndexOf('@');
+                    int hash = line.lastIndexOf('#', at);
+                    Platform platform = Platform.fromAlias(line.substring(at + 1))
+                            .orElse(riotClient.defaultPlatform());
+                    return riotClient.warmLookups(platform, line.substring(0, hash), line.substring(hash + 1, at))
+                            .onErrorResume(e -> Mono.empty());
+                }, WARM_CONCURRENCY)
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Lookup cache warm-up failed: {}", e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        periodicSave = Flux.interval(SAVE_INTERVAL, SAVE_INTERVAL)
+                .publishOn(workSchedulers.blocking())
+                .subscribe(tick -> saveRecent());
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        if (periodicSave != null) {
+            periodicSave.dispose();
+        }
+        saveRecent();
+    }
+
+    private List<String> loadRecent() throws IOException {
+        if (!Files.exists(recentFile)) {
+            return List.of();
+        }
+        List<String> ids = Files.readAllLines(recentFile).stream()
+                .map(String::trim)
+                .filter(line -> line.indexOf('#') > 0 && line.lastIndexOf('@') > line.indexOf('#'))
+                .toList();
+        log.info("Warming lookup caches for {} recent Riot IDs", ids.size());
+        // Most recent last in the file; warm the most recent first
+        return ids.reversed();
+    }
+
+    private void saveRecent() {
+        List<String> recent = riotClient.recentRiotIds();
+        if (recent.isEmpty()) {
+            return;
+        }
+        if (recent.size() > maxRecent) {
+            recent = recent.subList(recent.size() - maxRecent, recent.size());
+        }
+        try {
+            Files.createDirectories(recentFile.toAbsolutePath().getParent());
+            Files.write(recentFile, recent);
+        } catch (IOException e) {
+            log.warn("Failed to save recent Riot IDs: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.dto.MatchSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads recent match history for a group of players (a lobby, a team) as one
+ * batch: match IDs are gathered for every player first, deduplicated, and
+ * each unique match is fetched once. Duo and premade players share most of
+ * their games, so this avoids downloading the same match for each of them.
+ */
+@Service
+public class MatchBatchLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchBatchLoader.class);
+
+    private static final int ID_FETCH_CONCURRENCY = 5;
+    private static final int MATCH_FETCH_CONCURRENCY = 8;
+
+    private final RiotClient riotClient;
+    private final MatchHistoryService matchHistory;
+
+    public MatchBatchLoader(RiotClient riotClient, MatchHistoryService matchHistory) {
+        this.riotClient = riotClient;
+        this.matchHistory = matchHistory;
+    }
+
+    /**
+     * @return each player's matches, newest first, in the order the players
+     *         were given. Players whose history could not be loaded map to an
+     *         empty list.
+     */
+    public Mono<BatchResult> loadHistories(Platform platform, Collection<String> puuids, int matchesPerPlayer) {
+        List<String> players = List.copyOf(new LinkedHashSet<>(puuids));
+        return streamHistories(platform, players, matchesPerPlayer)
+                .collectMap(PlayerHistory::puuid, PlayerHistory::matches)
+                .map(loaded -> {
+                    Map<String, List<MatchSummary>> ordered = new LinkedHashMap<>();
+                    for (String puuid : players) {
+                        ordered.put(puuid, loaded.getOrDefault(puuid, List.of()));
+                    }
+                    return new BatchResult(ordered);
+                });
+    }
+
+    /**
+     * Same batch as {@link #loadHistories}, but emits each player as soon as
+     * all of their matches have arrived, so callers can render progressively.
+     * Unique matches are fetched in player order, so the first players tend
+     * to complete first.
+     */
+    public Flux<PlayerHistory> streamHistories(Platform platform, Collection<String> puuids,
+            int matchesPerPlayer) {
+        return Flux.fromIterable(new LinkedHashSet<>(puuids))
+                .flatMapSequential(puuid -> matchHistory.recentMatchIds(platform, puuid, matchesPerPlayer)
+                        .onErrorResume(e -> {
+                            log.warn("Failed to fetch match IDs for {}: {}", puuid, e.getMessage());
+                            return Mono.just(List.of());
+                        })
+                        .map(ids -> Map.entry(puuid, ids)), ID_FETCH_CONCURRENCY)
+                .collectList()
+                .flatMapMany(idsByPlayer -> {
+                    BatchProgress progress = new BatchProgress(idsByPlayer);
+                    log.info("Batch history for {} players: {} match lookups, {} unique, {} saved",
+                            idsByPlayer.size(), progress.requested, progress.unique.size(),
+                            progress.requested - progress.unique.size());
+                    return Flux.concat(
+                            Flux.fromIterable(progress.completeWithoutMatches()),
+                            Flux.fromIterable(progress.unique)
+                                    .flatMap(matchId -> riotClient.getMatchSummary(matchId)
+                                            .map(match -> new Loaded(matchId, match))
+                                            .onErrorResume(e -> {
+                                                log.warn("Failed to fetch match {}: {}", matchId, e.getMessage());
+                                                return Mono.just(new Loaded(matchId, null));
+                                            }), MATCH_FETCH_CONCURRENCY)
+                                    // flatMap serializes onNext, so progress needs no locking
+                                    .concatMapIterable(progress::onLoaded));
+                });
+    }
+
+    public record PlayerHistory(String puuid, List<MatchSummary> matches) {
+    }
+
+    public record BatchResult(Map<String, List<MatchSummary>> historyByPuuid) {
+
+        public List<MatchSummary> history(String puuid) {
+            return historyByPuuid.getOrDefault(puuid, List.of());
+        }
+    }
+
+    private record Loaded(String matchId, MatchSummary match) {
+    }
+
+    /** Tracks which players are still waiting on which matches. */
+    private static final class BatchProgress {
+
+        private final List<Map.Entry<String, List<String>>> idsByPlayer;
+        private final Map<String, List<Integer>> waitingPlayers = new HashMap<>();
+        private final int[] remaining;
+        private final Map<String, MatchSummary> loaded = new HashMap<>();
+        private final Set<String> unique = new LinkedHashSet<>();
+        private final int requested;
+
+        BatchProgress(List<Map.Entry<String, List<String>>> idsByPlayer) {
+            this.idsByPlayer = idsByPlayer;
+            this.remaining = new int[idsByPlayer.size()];
+            int total = 0;
+            for (int player = 0; player < idsByPlayer.size(); player++) {
+                List<String> ids = idsByPlayer.get(player).getValue();
+                total += ids.size();
+                for (String matchId : new LinkedHashSet<>(ids)) {
+                    unique.add(matchId);
+                    waitingPlayers.computeIfAbsent(matchId, k -> new ArrayList<>()).add(player);
+                    remaining[player]++;
+                }
+            }
+            this.requested = total;
+        }
+
+        List<PlayerHistory> completeWithoutMatches() {
+            List<PlayerHistory> done = new ArrayList<>();
+            for (int player = 0; player < remaining.length; player++) {
+                if (remaining[player] == 0) {
+                    done.add(history(player));
+                }
+            }
+            return done;
+        }
+
+        List<PlayerHistory> onLoaded(Loaded result) {
+            if (result.match() != null) {
+                loaded.put(result.matchId(), result.match());
+            }
+            List<PlayerHistory> done = new ArrayList<>();
+            for (int player : waitingPlayers.getOrDefault(result.matchId(), List.of())) {
+                if (--remaining[player] == 0) {
+                    done.add(history(player));
+                }
+            }
+            return done;
+        }
+
+        private PlayerHistory history(int player) {
+            Map.Entry<String, List<String>> entry = idsByPlayer.get(player);
+            List<MatchSummary> matches = new ArrayList<>(entry.getValue().size());
+            for (String matchId : entry.getValue()) {
+                MatchSummary match = loaded.get(matchId);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+            return new PlayerHistory(entry.getKey(), matches);
+        }
+    }
+}
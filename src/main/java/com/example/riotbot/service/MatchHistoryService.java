@@ -0,0 +1,143 @@
+package com.example.riotbot.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Per-player index of recent match IDs, synced incrementally.
+ *
+ * The first lookup for a PUUID fetches the latest IDs as before. Later
+ * lookups ask match-v5 only for games started after the newest game we
+ * already know ({@code startTime}) and merge them in front of the stored
+ * history, so a repeat scout costs one small IDs call plus a detail fetch
+ * for each new game only. A history synced less than
+ * {@code riot.history.fresh-for} ago is served without any request, which
+ * is what keeps players polled by {@link HotPlayerPrewarmer} network-free.
+ * Under {@link LoadLevel#CACHED_ONLY}, or when Riot is unavailable, any
+ * known history is served as is. Concurrent syncs of one player share a
+ * {@link SingleFlight}, at the priority of the most urgent caller.
+ */
+@Service
+public class MatchHistoryService {
+
+    // Ask for games started shortly before the newest known game ended; anything
+    // already known is filtered out by ID, so the margin only guards clock skew
+    private static final long START_TIME_MARGIN_SECONDS = 60;
+
+    private final RiotClient riotClient;
+    private final int maxMatchesPerPlayer;
+    private final long freshForMillis;
+    private final SingleFlightLruCache<String, PlayerHistory> histories;
+    private final SingleFlight<String, List<String>> inFlight = new SingleFlight<>();
+
+    public MatchHistoryService(RiotClient riotClient,
+            @Value("${riot.history.max-players:5000}") int maxPlayers,
+            @Value("${riot.history.max-matches:100}") int maxMatchesPerPlayer,
+            @Value("${riot.history.fresh-for:2m}") Duration freshFor) {
+        this.riotClient = riotClient;
+        this.maxMatchesPerPlayer = maxMatchesPerPlayer;
+        this.freshForMillis = freshFor.toMillis();
+        this.histories = new SingleFlightLruCache<>(maxPlayers);
+    }
+
+    /**
+     * Up to {@code count} most recent match IDs for the player, newest first,
+     * from the regional cluster of {@code platform}.
+     */
+    public Mono<List<String>> recentMatchIds(Platform platform, String puuid, int count) {
+        String key = historyKey(platform, puuid) + ':' + count;
+        return Mono.deferContextual(ctx -> {
+            if (LoadLevel.of(ctx) == LoadLevel.CACHED_ONLY) {
+                PlayerHistory known = histories.getIfPresent(historyKey(platform, puuid));
+                return known != null ? Mono.just(known.matchIds()) : Mono.error(new LoadLevel.CachedOnlyException());
+            }
+            return inFlight.load(key, k -> sync(platform, puuid, count));
+        })
+                .map(ids -> ids.size() > count ? ids.subList(0, count) : ids);
+    }
+
+    /** Match history lives per regional cluster, so platforms of one region share it. */
+    private static String historyKey(Platform platform, String puuid) {
+        return platform.region().name() + ':' + puuid;
+    }
+
+    private Mono<List<String>> sync(Platform platform, String puuid, int count) {
+        PlayerHistory known = histories.getIfPresent(historyKey(platform, puuid));
+        if (known == null) {
+            return fetch(platform, puuid, count, null);
+        }
+        return fetch(platform, puuid, count, known)
+                .onErrorResume(RiotResilience::isUnavailable, e -> Mono.just(known.matchIds()));
+    }
+
+    private Mono<List<String>> fetch(Platform platform, String puuid, int count, PlayerHistory known) {
+        String key = historyKey(platform, puuid);
+        if (known == null || known.matchIds().size() < count && !known.complete()) {
+            return riotClient.getMatchIds(platform, puuid, count)
+                    .flatMap(ids -> store(key, ids, ids.size() < count));
+        }
+        if (System.currentTimeMillis() - known.syncedAt() < freshForMillis) {
+            return Mono.just(known.matchIds());
+        }
+        long startTime = Math.max(0, known.newestGameEnd() / 1000 - START_TIME_MARGIN_SECONDS);
+        return riotClient.getMatchIdsSince(platform, puuid, startTime, count)
+                .flatMap(newIds -> {
+                    Set<String> seen = new HashSet<>(known.matchIds());
+                    List<String> merged = new ArrayList<>();
+                    for (String id : newIds) {
+                        if (seen.add(id)) {
+                            merged.add(id);
+                        }
+                    }
+                    if (merged.isEmpty()) {
+                        histories.put(key, known.synced());
+                        return Mono.just(known.matchIds());
+                    }
+                    boolean contiguous = merged.size() < count;
+                    if (contiguous) {
+                        merged.addAll(known.matchIds());
+                    }
+                    return store(key, merged, contiguous && known.complete());
+                });
+    }
+
+    /**
+     * Records the history with the end time of its newest game. The newest
+     * summary is loaded through RiotClient's match cache, which callers hit
+     * right after anyway, so this costs no extra request.
+     */
+    private Mono<List<String>> store(String key, List<String> ids, boolean complete) {
+        List<String> retained = List.copyOf(
+                ids.size() > maxMatchesPerPlayer ? ids.subList(0, maxMatchesPerPlayer) : ids);
+        if (retained.isEmpty()) {
+            histories.put(key, new PlayerHistory(retained, 0, complete, System.currentTimeMillis()));
+            return Mono.just(retained);
+        }
+        return riotClient.getMatchSummary(retained.get(0))
+                .doOnNext(newest -> histories.put(key,
+                        new PlayerHistory(retained, newest.gameEndTimestamp(), complete,
+                                System.currentTimeMillis())))
+                .thenReturn(retained)
+                .onErrorReturn(retained);
+    }
+
+    /**
+     * @param complete true when the list holds the player's entire match list
+     *                 (they have played fewer games than we asked for), so a
+     *                 larger count never needs a full refetch
+     * @param syncedAt when match-v5 last confirmed the list
+     */
+    private record PlayerHistory(List<String> matchIds, long newestGameEnd, boolean complete, long syncedAt) {
+
+        PlayerHistory synced() {
+            return new PlayerHistory(matchIds, newestGameEnd, complete, System.currentTimeMillis());
+        }
+    }
+}
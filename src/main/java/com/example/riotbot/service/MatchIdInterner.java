@@ -0,0 +1,34 @@
+package com.example.riotbot.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical match ID strings. Each ID turns up in the histories of all ten
+ * players of the game and in its {@link com.example.riotbot.dto.MatchSummary},
+ * so parsers intern the IDs they read and the caches share one copy.
+ *
+ * Cheaper than {@link String#intern()} on this path (a hash lookup instead
+ * of a trip to the JVM string table). Bounded: when full it starts over,
+ * which costs some duplicates until the pool refills, never correctness.
+ */
+final class MatchIdInterner {
+
+    private static final int MAX_SIZE = 100_000;
+    private static final Map<String, String> POOL = new ConcurrentHashMap<>();
+
+    private MatchIdInterner() {
+    }
+
+    static String intern(String matchId) {
+        String canonical = POOL.get(matchId);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (POOL.size() >= MAX_SIZE) {
+            POOL.clear();
+        }
+        canonical = POOL.putIfAbsent(matchId, matchId);
+        return canonical == null ? matchId : canonical;
+    }
+}
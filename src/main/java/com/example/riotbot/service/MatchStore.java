@@ -0,0 +1,397 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.dto.MatchSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent store of finished matches so a restart doesn't start cold.
+ *
+ * Matches are appended to numbered segments under {@code riot.store.dir},
+ * each a pair of files:
+ * <ul>
+ * <li>{@code matches.N.seg}: header followed by append-only records of
+ * {@code [int length][MatchSummary bytes]}. Read through a read-only memory
+ * mapping.</li>
+ * <li>{@code matches.N.idx}: append-only {@code [matchId][offset][length]}
+ * entries. Index files are the only files read when the store opens;
+ * segments are never replayed.</li>
+ * </ul>
+ * Only the newest segment is written. Once it reaches
+ * {@code riot.store.segment-size} a new one is started, and beyond
+ * {@code riot.store.max-segments} the oldest is deleted with its matches, so
+ * the store keeps the most recent matches within a bounded size and never
+ * stops persisting. Sizes and evictions are exported as {@code riot.store.*}.
+ *
+ * Nothing is opened until {@link #open} (startup warm-up) or the first lookup
+ * or write. A torn index tail (crash mid-append) is truncated on open;
+ * segment bytes with no index entry are simply unreachable. A segment
+ * written with another format version is discarded.
+ */
+@Component
+public class MatchStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchStore.class);
+
+    private static final int MAGIC = 0x52424D53; // "RBMS"
+    // Also versions the match keys of the SharedCache
+    static final int FORMAT_VERSION = 3;
+    private static final int HEADER_SIZE = 8;
+    // Reads go through one MappedByteBuffer per segment, which is int-indexed
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+    private static final Pattern SEGMENT_FILE = Pattern.compile("matches\\.(\\d+)\\.seg");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentSize;
+    private final int maxSegments;
+    private final WorkSchedulers workSchedulers;
+    private final Counter evicted;
+    private final Counter writeFailures;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private volatile boolean opened;
+    private Segment active;
+    private FileChannel activeIndex;
+
+    public MatchStore(@Value("${riot.store.enabled:true}") boolean enabled,
+            @Value("${riot.store.dir:data/matches}") String directory,
+            @Value("${riot.store.segment-size:1GB}") DataSize segmentSize,
+            @Value("${riot.store.max-segments:4}") int maxSegments,
+            WorkSchedulers workSchedulers, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = Math.min(Math.max(segmentSize.toBytes(), HEADER_SIZE + 1), MAX_SEGMENT_SIZE);
+        this.maxSegments = Math.max(1, maxSegments);
+        this.workSchedulers = workSchedulers;
+        this.evicted = Counter.builder("riot.store.evicted")
+                .description("Matches dropped with the oldest segment of the match store")
+                .register(meterRegistry);
+        this.writeFailures = Counter.builder("riot.store.write.failures")
+                .description("Matches that could not be persisted to the match store")
+                .register(meterRegistry);
+        Gauge.builder("riot.store.matches", this, MatchStore::size)
+                .description("Matches in the match store")
+                .register(meterRegistry);
+        Gauge.builder("riot.store.segments", segments, Map::size)
+                .description("Segments of the match store on disk")
+                .register(meterRegistry);
+        Gauge.builder("riot.store.bytes", this, MatchStore::bytes)
+                .description("Size of the match store segments on disk")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Mono<MatchSummary> find(String matchId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> read(matchId))
+                .subscribeOn(workSchedulers.blocking())
+                .onErrorResume(e -> {
+                    log.warn("Match store read failed for {}: {}", matchId, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    /** Persists a match. Failures are logged and swallowed; the store is only a cache. */
+    public Mono<Void> save(MatchSummary match) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> write(match))
+                .subscribeOn(workSchedulers.blocking())
+                .onErrorResume(e -> {
+                    writeFailures.increment();
+                    log.warn("Match store write failed for {}: {}", match.matchId(), e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /** Opens the store and loads its index ahead of the first lookup. */
+    public Mono<Void> open() {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> {
+                    try {
+                        openIfNeeded();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .subscribeOn(workSchedulers.blocking())
+                .onErrorResume(e -> {
+                    log.warn("Match store open failed: {}", e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private long bytes() {
+        long bytes = 0;
+        for (Segment segment : segments.values()) {
+            bytes += segment.size;
+        }
+        return bytes;
+    }
+
+    private MatchSummary read(String matchId) throws IOException {
+        openIfNeeded();
+        Location location = index.get(matchId);
+        if (location == null) {
+            return null;
+        }
+        Segment segment = segments.get(location.segment());
+        if (segment == null) {
+            // Evicted since the lookup
+            return null;
+        }
+        MappedByteBuffer buffer = segment.mapped;
+        if (buffer == null || location.offset() + location.length() > buffer.capacity()) {
+            buffer = segment.remap();
+        }
+        byte[] payload = new byte[location.length()];
+        buffer.get(location.offset(), payload);
+        return MatchSummary.fromBytes(payload);
+    }
+
+    private synchronized void write(MatchSummary match) {
+        String matchId = match.matchId();
+        try {
+            openIfNeeded();
+            if (index.containsKey(matchId)) {
+                return;
+            }
+            byte[] payload = match.toBytes();
+            if (HEADER_SIZE + 4L + payload.length > segmentSize) {
+                log.warn("Match {} ({} bytes) does not fit in a segment, not persisting it", matchId,
+                        payload.length);
+                return;
+            }
+            if (active.size + 4 + payload.length > segmentSize) {
+                roll();
+            }
+            long recordStart = active.size;
+            ByteBuffer record = ByteBuffer.allocate(4 + payload.length);
+            record.putInt(payload.length).put(payload).flip();
+            while (record.hasRemaining()) {
+                active.channel.write(record, recordStart + record.position());
+            }
+            active.size = recordStart + record.limit();
+            int payloadOffset = (int) (recordStart + 4);
+            byte[] id = matchId.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer entry = ByteBuffer.allocate(2 + id.length + 8 + 4);
+            entry.putShort((short) id.length).put(id).putLong(payloadOffset).putInt(payload.length).flip();
+            while (entry.hasRemaining()) {
+                activeIndex.write(entry);
+            }
+            index.put(matchId, new Location(active.number, payloadOffset, payload.length));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Seals the active segment, starts the next one and drops the oldest beyond the limit. */
+    private void roll() throws IOException {
+        activeIndex.close();
+        startSegment(active.number + 1);
+        while (segments.size() > maxSegments) {
+            evict(segments.firstEntry().getValue());
+        }
+    }
+
+    private void startSegment(int number) throws IOException {
+        Files.deleteIfExists(indexPath(number));
+        FileChannel channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        channel.write(header, 0);
+        active = new Segment(number, channel, HEADER_SIZE);
+        activeIndex = FileChannel.open(indexPath(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segments.put(number, active);
+    }
+
+    private void evict(Segment oldest) throws IOException {
+        segments.remove(oldest.number);
+        int before = index.size();
+        index.values().removeIf(location -> location.segment() == oldest.number);
+        int dropped = before - index.size();
+        evicted.increment(dropped);
+        oldest.channel.close();
+        Files.deleteIfExists(segmentPath(oldest.number));
+        Files.deleteIfExists(indexPath(oldest.number));
+        log.info("Match store full, dropped segment {} with {} matches", oldest.number, dropped);
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve("matches." + number + ".seg");
+    }
+
+    private Path indexPath(int number) {
+        return directory.resolve("matches." + number + ".idx");
+    }
+
+    private void openIfNeeded() throws IOException {
+        if (opened) {
+            return;
+        }
+        synchronized (this) {
+            if (opened) {
+                return;
+            }
+            long start = System.nanoTime();
+            Files.createDirectories(directory);
+
+            TreeMap<Integer, Path> found = new TreeMap<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "matches.*.seg")) {
+                for (Path file : files) {
+                    Matcher name = SEGMENT_FILE.matcher(file.getFileName().toString());
+                    if (name.matches()) {
+                        found.put(Integer.parseInt(name.group(1)), file);
+                    }
+                }
+            }
+            for (Map.Entry<Integer, Path> file : found.entrySet()) {
+                int number = file.getKey();
+                FileChannel channel = FileChannel.open(file.getValue(), StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                if (!hasValidHeader(channel)) {
+                    log.info("Discarding match store segment {} of another format", number);
+                    channel.close();
+                    Files.deleteIfExists(file.getValue());
+                    Files.deleteIfExists(indexPath(number));
+                    continue;
+                }
+                Segment segment = new Segment(number, channel, channel.size());
+                long validIndexBytes = loadIndex(segment);
+                segments.put(number, segment);
+                if (number == found.lastKey()) {
+                    active = segment;
+                    activeIndex = FileChannel.open(indexPath(number), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE);
+                    activeIndex.truncate(validIndexBytes);
+                    activeIndex.position(validIndexBytes);
+                }
+            }
+            if (active == null) {
+                log.info("Initialising new match store at {}", directory.toAbsolutePath());
+                startSegment(found.isEmpty() ? 0 : found.lastKey() + 1);
+            }
+
+            opened = true;
+            log.info("Opened match store with {} matches in {} segments in {} ms", index.size(), segments.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static boolean hasValidHeader(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        return header.getInt() == MAGIC && header.getInt() == FORMAT_VERSION;
+    }
+
+    /** Loads the segment's index entries and returns the number of bytes that form complete, valid entries. */
+    private long loadIndex(Segment segment) throws IOException {
+        Path indexPath = indexPath(segment.number);
+        if (!Files.exists(indexPath)) {
+            return 0;
+        }
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+        long valid = 0;
+        try {
+            while (in.hasRemaining()) {
+                byte[] id = new byte[in.getShort() & 0xFFFF];
+                in.get(id);
+                long offset = in.getLong();
+                int length = in.getInt();
+                if (offset + length > segment.size) {
+                    break;
+                }
+                index.put(new String(id, StandardCharsets.UTF_8), new Location(segment.number, (int) offset, length));
+                valid = in.position();
+            }
+        } catch (BufferUnderflowException e) {
+            // torn tail, keep what was complete
+        }
+        return valid;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (!opened) {
+            return;
+        }
+        activeIndex.close();
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+        segments.clear();
+        active = null;
+        opened = false;
+    }
+
+    private record Location(int segment, int offset, int length) {
+    }
+
+    private static final class Segment {
+
+        final int number;
+        final FileChannel channel;
+        /** Bytes written; only the active segment grows. */
+        volatile long size;
+        volatile MappedByteBuffer mapped;
+
+        Segment(int number, FileChannel channel, long size) {
+            this.number = number;
+            this.channel = channel;
+            this.size = size;
+        }
+
+        synchronized MappedByteBuffer remap() throws IOException {
+            long current = size;
+            if (mapped == null || mapped.capacity() < current) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, current);
+            }
+            return mapped;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.dto.MatchSummary;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for match-v5 match payloads. Walks the token stream once
+ * and writes the few fields we use straight into the primitive columns of a
+ * {@link MatchSummary}; every other field (challenges, perks, missions, ...)
+ * is skipped without being materialized.
+ */
+public class MatchSummaryParser {
+
+    private static final int INITIAL_SLOTS = 10;
+
+    private final JsonFactory jsonFactory;
+
+    public MatchSummaryParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public MatchSummary parse(byte[] json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return parse(parser);
+        }
+    }
+
+    public MatchSummary parse(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+        Builder builder = new Builder();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (field) {
+                case "metadata" -> parseMetadata(parser, builder);
+                case "info" -> parseInfo(parser, builder);
+                default -> parser.skipChildren();
+            }
+        }
+        return builder.build();
+    }
+
+    private void parseMetadata(JsonParser parser, Builder builder) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_OBJECT);
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            if (field.equals("matchId")) {
+                // Shares one copy with the ID lists of the players' histories
+                String matchId = parser.getValueAsString();
+                builder.matchId = matchId == null ? null : MatchIdInterner.intern(matchId);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void parseInfo(JsonParser parser, Builder builder) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_OBJECT);
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (field) {
+                case "gameEndTimestamp" -> builder.gameEndTimestamp = parser.getValueAsLong();
+                case "gameDuration" -> builder.gameDuration = parser.getValueAsLong();
+                case "gameMode" -> builder.gameMode = parser.getValueAsString();
+                case "participants" -> {
+                    expect(parser.currentToken(), JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        parseParticipant(parser, builder, builder.nextSlot());
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private void parseParticipant(JsonParser parser, Builder b, int slot) throws IOException {
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (field) {
+                case "puuid" -> b.puuids[slot] = parser.getValueAsString();
+                case "teamId" -> b.teamIds[slot] = parser.getValueAsInt();
+                case "championName" -> b.championNames[slot] = parser.getValueAsString();
+                case "kills" -> b.kills[slot] = parser.getValueAsInt();
+                case "deaths" -> b.deaths[slot] = parser.getValueAsInt();
+                case "assists" -> b.assists[slot] = parser.getValueAsInt();
+                case "totalDamageDealtToChampions" -> b.damageDealt[slot] = parser.getValueAsInt();
+                case "totalDamageTaken" -> b.damageTaken[slot] = parser.getValueAsInt();
+                case "totalMinionsKilled" -> b.minionsKilled[slot] = parser.getValueAsInt();
+                case "neutralMinionsKilled" -> b.neutralMinionsKilled[slot] = parser.getValueAsInt();
+                case "goldEarned" -> b.goldEarned[slot] = parser.getValueAsInt();
+                case "visionScore" -> b.visionScore[slot] = parser.getValueAsInt();
+                case "profileIcon" -> b.profileIcon[slot] = parser.getValueAsInt();
+                case "win" -> {
+                    if (parser.getValueAsBoolean()) {
+                        b.winMask |= 1L << slot;
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Malformed match payload: expected " + expected + " but got " + actual);
+        }
+    }
+
+    private static final class Builder {
+        String matchId;
+        long gameEndTimestamp;
+        long gameDuration;
+        String gameMode;
+        int count;
+        long winMask;
+        String[] puuids = new String[INITIAL_SLOTS];
+        String[] championNames = new String[INITIAL_SLOTS];
+        int[] teamIds = new int[INITIAL_SLOTS];
+        int[] kills = new int[INITIAL_SLOTS];
+        int[] deaths = new int[INITIAL_SLOTS];
+        int[] assists = new int[INITIAL_SLOTS];
+        int[] damageDealt = new int[INITIAL_SLOTS];
+        int[] damageTaken = new int[INITIAL_SLOTS];
+        int[] minionsKilled = new int[INITIAL_SLOTS];
+        int[] neutralMinionsKilled = new int[INITIAL_SLOTS];
+        int[] goldEarned = new int[INITIAL_SLOTS];
+        int[] visionScore = new int[INITIAL_SLOTS];
+        int[] profileIcon = new int[INITIAL_SLOTS];
+
+        int nextSlot() throws IOException {
+            if (count == Long.SIZE) {
+                throw new IOException("Malformed match payload: more than " + Long.SIZE + " participants");
+            }
+            if (count == puuids.length) {
+                resize(count * 2);
+            }
+            return count++;
+        }
+
+        MatchSummary build() throws IOException {
+            if (matchId == null) {
+                throw new IOException("Malformed match payload: missing metadata.matchId");
+            }
+            if (count != puuids.length) {
+                resize(count);
+            }
+            for (int i = 0; i < count; i++) {
+                if (puuids[i] == null) {
+                    puuids[i] = "";
+                }
+                if (championNames[i] == null) {
+                    championNames[i] = "";
+                }
+            }
+            // Payloads from before gameEndTimestamp existed report gameDuration in milliseconds
+            int gameDurationSeconds = (int) (gameEndTimestamp == 0 ? gameDuration / 1000 : gameDuration);
+            return new MatchSummary(matchId, gameEndTimestamp, gameDurationSeconds, gameMode, puuids, teamIds,
+                    championNames, kills, deaths, assists, damageDealt, damageTaken, minionsKilled,
+                    neutralMinionsKilled, goldEarned, visionScore, profileIcon, winMask);
+        }
+
+        private void resize(int size) {
+            puuids = Arrays.copyOf(puuids, size);
+            championNames = Arrays.copyOf(championNames, size);
+            teamIds = Arrays.copyOf(teamIds, size);
+            kills = Arrays.copyOf(kills, size);
+            deaths = Arrays.copyOf(deaths, size);
+            assists = Arrays.copyOf(assists, size);
+            damageDealt = Arrays.copyOf(damageDealt, size);
+            damageTaken = Arrays.copyOf(damageTaken, size);
+            minionsKilled = Arrays.copyOf(minionsKilled, size);
+            neutralMinionsKilled = Arrays.copyOf(neutralMinionsKilled, size);
+            goldEarned = Arrays.copyOf(goldEarned, size);
+            visionScore = Arrays.copyOf(visionScore, size);
+            profileIcon = Arrays.copyOf(profileIcon, size);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.riotbot.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * {@link SharedCache} that holds nothing. A single instance has no one to
+ * share with, and its own caches already hold everything a shared one in
+ * this JVM would, so lookups go straight from those to Riot.
+ */
+public class NoOpSharedCache implements SharedCache {
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration ttl) {
+        return Mono.empty();
+    }
+}
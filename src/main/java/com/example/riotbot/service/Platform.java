@@ -0,0 +1,110 @@
+package com.example.riotbot.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Riot platform (game server) with the regional cluster that serves its
+ * match-v5 and account-v1 data. Summoner, league and spectator calls go to
+ * {@link #host()}; match history goes to {@code region().host()}.
+ */
+public enum Platform {
+
+    NA1("NA", Region.AMERICAS, "na"),
+    BR1("BR", Region.AMERICAS, "br"),
+    LA1("LAN", Region.AMERICAS, "lan"),
+    LA2("LAS", Region.AMERICAS, "las"),
+    EUW1("EUW", Region.EUROPE, "euw"),
+    EUN1("EUNE", Region.EUROPE, "eune", "eun"),
+    TR1("TR", Region.EUROPE, "tr"),
+    RU("RU", Region.EUROPE, "ru1"),
+    ME1("ME", Region.EUROPE, "me"),
+    KR("KR", Region.ASIA, "kr1"),
+    JP1("JP", Region.ASIA, "jp"),
+    OC1("OCE", Region.SEA, "oce", "oc"),
+    PH2("PH", Region.SEA, "ph"),
+    SG2("SG", Region.SEA, "sg"),
+    TH2("TH", Region.SEA, "th"),
+    TW2("TW", Region.SEA, "tw"),
+    VN2("VN", Region.SEA, "vn");
+
+    /** Regional routing value used by account-v1 and match-v5. */
+    public enum Region {
+        AMERICAS,
+        EUROPE,
+        ASIA,
+        SEA;
+
+        public String host() {
+            return name().toLowerCase(Locale.ROOT) + ".api.riotgames.com";
+        }
+
+        /** account-v1 is not served from SEA; any cluster resolves any Riot ID, so use the nearest. */
+        public Region accountRegion() {
+            return this == SEA ? ASIA : this;
+        }
+    }
+
+    private static final Map<String, Platform> BY_ALIAS = new HashMap<>();
+
+    static {
+        for (Platform platform : values()) {
+            BY_ALIAS.put(platform.name().toLowerCase(Locale.ROOT), platform);
+            BY_ALIAS.put(platform.displayName.toLowerCase(Locale.ROOT), platform);
+            for (String alias : platform.aliases) {
+                BY_ALIAS.put(alias, platform);
+            }
+        }
+    }
+
+    private final String displayName;
+    private final Region region;
+    private final String[] aliases;
+    private final String host;
+
+    Platform(String displayName, Region region, String... aliases) {
+        this.displayName = displayName;
+        this.region = region;
+        this.aliases = aliases;
+        this.host = name().toLowerCase(Locale.ROOT) + ".api.riotgames.com";
+    }
+
+    public String displayName() {
+        return displayName;
+    }
+
+    public Region region() {
+        return region;
+    }
+
+    public String host() {
+        return host;
+    }
+
+    /** Platform named by a platform ID ("EUW1") or a common short name ("euw", "oce"). */
+    public static Optional<Platform> fromAlias(String alias) {
+        if (alias == null || alias.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(BY_ALIAS.get(alias.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    /** Platform that hosted a match, from the prefix of its ID ("EUW1_7012345678"). */
+    public static Optional<Platform> fromMatchId(String matchId) {
+        int separator = matchId.indexOf('_');
+        return separator > 0 ? fromAlias(matchId.substring(0, separator)) : Optional.empty();
+    }
+
+    /**
+     * Platform to scout a player on: the explicit option if given, else the
+     * Riot ID tag when it is a region default ("EUW", "KR1", "OCE"), else
+     * {@code fallback}. Custom tags ("1234", "GOAT") carry no region.
+     */
+    public static Platform resolve(String option, String tagLine, Platform fallback) {
+        return fromAlias(option)
+                .or(() -> fromAlias(tagLine))
+                .orElse(fallback);
+    }
+}
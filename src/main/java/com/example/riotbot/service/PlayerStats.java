@@ -0,0 +1,234 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.dto.MatchSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rolling aggregates over one player's most recent matches.
+ *
+ * Each match the player appears in becomes one row of primitive columns
+ * (the player's own numbers only), and running sums are kept alongside, so
+ * {@link #snapshot()} never re-scans the matches and no match or JSON is
+ * retained. When the window is full, the oldest row is evicted and
+ * subtracted from the sums. Matches arrive in any order, so finding the
+ * oldest scans the window's game end column: at most
+ * {@link PlayerStatsEngine#MAX_MATCHES} longs, and only while full.
+ *
+ * Not thread-safe; {@link PlayerStatsEngine} guards each instance.
+ */
+public final class PlayerStats {
+
+    private final int capacity;
+    private final Set<String> matchIds = new HashSet<>();
+    private final String[] rowMatchIds;
+    private final long[] gameEnd;
+    private final int[] kills;
+    private final int[] deaths;
+    private final int[] assists;
+    private final int[] cs;
+    private final int[] durationSeconds;
+    private final int[] damage;
+    private final int[] teamDamage;
+    private final int[] champion;
+    private final boolean[] won;
+    private int rows;
+
+    private long sumKills;
+    private long sumDeaths;
+    private long sumAssists;
+    private long sumCs;
+    private long sumDurationSeconds;
+    private long sumDamage;
+    private long sumTeamDamage;
+    private int wins;
+
+    // Champion dictionary: names are interned per player, counts are columns by champion index
+    private final List<String> championNames = new ArrayList<>();
+    private final Map<String, Integer> championIndex = new HashMap<>();
+    private int[] championGames = new int[16];
+    private int[] championWins = new int[16];
+
+    public PlayerStats(int capacity) {
+        this.capacity = capacity;
+        this.rowMatchIds = new String[capacity];
+        this.gameEnd = new long[capacity];
+        this.kills = new int[capacity];
+        this.deaths = new int[capacity];
+        this.assists = new int[capacity];
+        this.cs = new int[capacity];
+        this.durationSeconds = new int[capacity];
+        this.damage = new int[capacity];
+        this.teamDamage = new int[capacity];
+        this.champion = new int[capacity];
+        this.won = new boolean[capacity];
+    }
+
+    public boolean contains(String matchId) {
+        return matchIds.contains(matchId);
+    }
+
+    /**
+     * Adds the player's row of the match.
+     *
+     * @return false if the match is already counted, the player is not in
+     *         it, or the window is full of newer matches
+     */
+    public boolean add(MatchSummary match, String puuid) {
+        if (matchIds.contains(match.matchId())) {
+            return false;
+        }
+        int slot = match.indexOf(puuid);
+        if (slot < 0) {
+            return false;
+        }
+        if (rows == capacity) {
+            int oldest = oldestRow();
+            if (gameEnd[oldest] >= match.gameEndTimestamp()) {
+                return false;
+            }
+            remove(oldest);
+        }
+        int row = rows++;
+        rowMatchIds[row] = match.matchId();
+        gameEnd[row] = match.gameEndTimestamp();
+        kills[row] = match.kills(slot);
+        deaths[row] = match.deaths(slot);
+        assists[row] = match.assists(slot);
+        cs[row] = match.totalCs(slot);
+        durationSeconds[row] = match.gameDurationSeconds();
+        damage[row] = match.damageDealt(slot);
+        teamDamage[row] = match.teamDamageDealt(slot);
+        champion[row] = championIndex(match.championName(slot));
+        won[row] = match.won(slot);
+        matchIds.add(match.matchId());
+        apply(row, 1);
+        return true;
+    }
+
+    public int games() {
+        return rows;
+    }
+
+    public Snapshot snapshot() {
+        List<ChampionStats> champions = new ArrayList<>();
+        for (int i = 0; i < championNames.size(); i++) {
+            if (championGames[i] > 0) {
+                champions.add(new ChampionStats(championNames.get(i), championGames[i], championWins[i]));
+            }
+        }
+        // Most played first, ties by name so output is stable
+        champions.sort(Comparator.comparingInt(ChampionStats::games).reversed()
+                .thenComparing(ChampionStats::name));
+        return new Snapshot(rows, wins, sumKills, sumDeaths, sumAssists, sumCs, sumDurationSeconds, sumDamage,
+                sumTeamDamage, List.copyOf(champions));
+    }
+
+    private int oldestRow() {
+        int oldest = 0;
+        for (int row = 1; row < rows; row++) {
+            if (gameEnd[row] < gameEnd[oldest]) {
+                oldest = row;
+            }
+        }
+        return oldest;
+    }
+
+    /** Subtracts the row and moves the last row into its place. */
+    private void remove(int row) {
+        apply(row, -1);
+        matchIds.remove(rowMatchIds[row]);
+        int last = --rows;
+        rowMatchIds[row] = rowMatchIds[last];
+        gameEnd[row] = gameEnd[last];
+        kills[row] = kills[last];
+        deaths[row] = deaths[last];
+        assists[row] = assists[last];
+        cs[row] = cs[last];
+        durationSeconds[row] = durationSeconds[last];
+        damage[row] = damage[last];
+        teamDamage[row] = teamDamage[last];
+        champion[row] = champion[last];
+        won[row] = won[last];
+        rowMatchIds[last] = null;
+    }
+
+    private void apply(int row, int sign) {
+        sumKills += sign * kills[row];
+        sumDeaths += sign * deaths[row];
+        sumAssists += sign * assists[row];
+        sumCs += sign * cs[row];
+        sumDurationSeconds += sign * durationSeconds[row];
+        sumDamage += sign * damage[row];
+        sumTeamDamage += sign * teamDamage[row];
+        championGames[champion[row]] += sign;
+        if (won[row]) {
+            wins += sign;
+            championWins[champion[row]] += sign;
+        }
+    }
+
+    private int championIndex(String name) {
+        Integer index = championIndex.get(name);
+        if (index != null) {
+            return index;
+        }
+        int next = championNames.size();
+        if (next == championGames.length) {
+            championGames = Arrays.copyOf(championGames, next * 2);
+            championWins = Arrays.copyOf(championWins, next * 2);
+        }
+        championNames.add(name);
+        championIndex.put(name, next);
+        return next;
+    }
+
+    /** Immutable totals at one point in time; the averages are derived on read. */
+    public record Snapshot(int games, int wins, long kills, long deaths, long assists, long cs,
+            long durationSeconds, long damage, long teamDamage, List<ChampionStats> champions) {
+
+        public double winRate() {
+            return games == 0 ? 0.0 : (double) wins / games;
+        }
+
+        /** (kills + assists) / deaths, with deathless records counted as one death. */
+        public double kda() {
+            return (double) (kills + assists) / Math.max(1, deaths);
+        }
+
+        public double avgKills() {
+            return games == 0 ? 0.0 : (double) kills / games;
+        }
+
+        public double avgDeaths() {
+            return games == 0 ? 0.0 : (double) deaths / games;
+        }
+
+        public double avgAssists() {
+            return games == 0 ? 0.0 : (double) assists / games;
+        }
+
+        public double csPerMinute() {
+            return durationSeconds == 0 ? 0.0 : cs * 60.0 / durationSeconds;
+        }
+
+        /** The player's part of their teams' champion damage over all counted matches. */
+        public double damageShare() {
+            return teamDamage == 0 ? 0.0 : (double) damage / teamDamage;
+        }
+    }
+
+    public record ChampionStats(String name, int games, int wins) {
+
+        public double winRate() {
+            return games == 0 ? 0.0 : (double) wins / games;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.dto.MatchSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-player {@link PlayerStats} over the last {@code riot.stats.matches}
+ * matches (20 to 100): win rate, KDA, CS per minute, damage share and
+ * per-champion win rate.
+ *
+ * Matches are folded in by {@link #record} from callers that already
+ * loaded them (a batched team history); matches counted before are skipped,
+ * so reading a player that is already up to date costs a snapshot of their
+ * running sums.
+ */
+@Service
+public class PlayerStatsEngine {
+
+    static final int MIN_MATCHES = 20;
+    static final int MAX_MATCHES = 100;
+
+    private final int matchesPerPlayer;
+    private final Map<String, PlayerStats> players;
+
+    public PlayerStatsEngine(@Value("${riot.stats.matches:20}") int matchesPerPlayer,
+            @Value("${riot.stats.max-players:5000}") int maxPlayers) {
+        this.matchesPerPlayer = Math.max(MIN_MATCHES, Math.min(MAX_MATCHES, matchesPerPlayer));
+        this.players = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PlayerStats> eldest) {
+                return size() > maxPlayers;
+            }
+        };
+    }
+
+    /** Matches aggregated per player; also the history depth callers should load for {@link #record}. */
+    public int matchesPerPlayer() {
+        return matchesPerPlayer;
+    }
+
+    /** Folds in any of the matches not counted yet and returns the player's current totals. */
+    public PlayerStats.Snapshot record(Platform platform, String puuid, Collection<MatchSummary> matches) {
+        PlayerStats stats = statsFor(platform, puuid);
+        synchronized (stats) {
+            for (MatchSummary match : matches) {
+                stats.add(match, puuid);
+            }
+            return stats.snapshot();
+        }
+    }
+
+    private PlayerStats statsFor(Platform platform, String puuid) {
+        // Match history lives per regional cluster, as in MatchHistoryService
+        String key = platform.region().name() + ':' + puuid;
+        synchronized (players) {
+            return players.computeIfAbsent(key, k -> new PlayerStats(matchesPerPlayer));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.riotbot.service;
+
+/**
+ * One Riot rate limit, made of one or more fixed windows as reported by the
+ * {@code X-*-Rate-Limit} headers, e.g. {@code "20:1,100:120"} means 20 requests
+ * per second and 100 per two minutes. A window starts with the first request
+ * made after the previous window expired. Malformed headers are ignored
+ * and the current limits kept. Not thread-safe; callers lock.
+ */
+final class RateLimitBucket {
+
+    private long[] limits;
+    private long[] windowMillis;
+    private long[] counts;
+    private long[] windowStarts;
+    private long blockedUntil;
+
+    private RateLimitBucket(long[] limits, long[] windowMillis) {
+        this.limits = limits;
+        this.windowMillis = windowMillis;
+        this.counts = new long[limits.length];
+        this.windowStarts = new long[limits.length];
+    }
+
+    static RateLimitBucket unlimited() {
+        return new RateLimitBucket(new long[0], new long[0]);
+    }
+
+    static RateLimitBucket parse(String header) {
+        RateLimitBucket bucket = unlimited();
+        if (!bucket.setLimits(header)) {
+            throw new IllegalArgumentException("Malformed rate limits: " + header);
+        }
+        return bucket;
+    }
+
+    /** Milliseconds until one more request fits in every window, 0 if it fits now. */
+    long waitMillis(long now) {
+        long wait = Math.max(0, blockedUntil - now);
+        for (int i = 0; i < limits.length; i++) {
+            long windowEnd = windowStarts[i] + windowMillis[i];
+            if (now < windowEnd && counts[i] >= limits[i]) {
+                wait = Math.max(wait, windowEnd - now);
+            }
+        }
+        return wait;
+    }
+
+    /** Share of the fullest window already used, 1 while blocked; 0 for an unlimited bucket. */
+    double usage(long now) {
+        if (now < blockedUntil) {
+            return 1;
+        }
+        double usage = 0;
+        for (int i = 0; i < limits.length; i++) {
+            if (now < windowStarts[i] + windowMillis[i]) {
+                usage = Math.max(usage, (double) counts[i] / limits[i]);
+            }
+        }
+        return usage;
+    }
+
+    void consume(long now) {
+        for (int i = 0; i < limits.length; i++) {
+            if (now >= windowStarts[i] + windowMillis[i]) {
+                windowStarts[i] = now;
+                counts[i] = 0;
+            }
+            counts[i]++;
+        }
+    }
+
+    void blockUntil(long until) {
+        blockedUntil = Math.max(blockedUntil, until);
+    }
+
+    /**
+     * Adopts the limits Riot reported and raises local counts to the server's
+     * view, which also accounts for requests made by other processes sharing
+     * the key.
+     */
+    void sync(String limitHeader, String countHeader, long now) {
+        if (limitHeader != null && !limitHeader.isBlank()) {
+            // A malformed header keeps the current limits
+            setLimits(limitHeader);
+        }
+        if (countHeader == null || countHeader.isBlank()) {
+            return;
+        }
+        for (String part : countHeader.split(",")) {
+            int colon = part.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            long count;
+            long window;
+            try {
+                count = Long.parseLong(part.substring(0, colon).trim());
+                window = Long.parseLong(part.substring(colon + 1).trim()) * 1000;
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            for (int i = 0; i < limits.length; i++) {
+                if (windowMillis[i] == window) {
+                    if (now >= windowStarts[i] + windowMillis[i]) {
+                        windowStarts[i] = now;
+                        counts[i] = 0;
+                    }
+                    counts[i] = Math.max(counts[i], count);
+                }
+            }
+        }
+    }
+
+    /** Replaces the limits with those in the header; false, changing nothing, if it is malformed. */
+    private boolean setLimits(String header) {
+        String[] parts = header.split(",");
+        long[] newLimits = new long[parts.length];
+        long[] newWindows = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String[] pair = parts[i].trim().split(":");
+            if (pair.length != 2) {
+                return false;
+            }
+            try {
+                newLimits[i] = Long.parseLong(pair[0].trim());
+                newWindows[i] = Long.parseLong(pair[1].trim()) * 1000;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (newLimits[i] <= 0 || newWindows[i] <= 0) {
+                return false;
+            }
+        }
+        if (java.util.Arrays.equals(newLimits, limits) && java.util.Arrays.equals(newWindows, windowMillis)) {
+            return true;
+        }
+        long[] newCounts = new long[parts.length];
+        long[] newStarts = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            for (int j = 0; j < windowMillis.length; j++) {
+                if (windowMillis[j] == newWindows[i]) {
+                    newCounts[i] = counts[j];
+                    newStarts[i] = windowStarts[j];
+                }
+            }
+        }
+        limits = newLimits;
+        windowMillis = newWindows;
+        counts = newCounts;
+        windowStarts = newStarts;
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.riotbot.service;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.reactive.RedisReactiveCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * {@link SharedCache} on a Redis server (or anything speaking its protocol,
+ * such as a local container for tests), shared by every instance pointed at
+ * it. Keys are prefixed with {@code keyPrefix}; entries expire server-side.
+ *
+ * One multiplexed connection is opened on first use and reconnects on its
+ * own. Every command is bounded by {@code timeout}, and an unreachable
+ * server is treated as a miss, so a Redis outage only costs extra Riot calls.
+ */
+public class RedisSharedCache implements SharedCache, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisSharedCache.class);
+
+    private final RedisClient client;
+    private final String keyPrefix;
+    private final Duration timeout;
+    private final Mono<RedisReactiveCommands<String, byte[]>> commands;
+    private volatile StatefulRedisConnection<String, byte[]> connection;
+
+    public RedisSharedCache(String uri, String keyPrefix, Duration timeout) {
+        this.client = RedisClient.create();
+        this.keyPrefix = keyPrefix;
+        this.timeout = timeout;
+        RedisURI redisUri = RedisURI.create(uri);
+        // Connect lazily; a failed attempt is not cached, so the next lookup retries. The first
+        // connect also starts Lettuce's own threads, so keep it off the caller's event loop
+        this.commands = Mono.defer(() -> Mono.fromCompletionStage(
+                client.connectAsync(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE), redisUri)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(c -> connection = c)
+                .map(StatefulRedisConnection::reactive)
+                .cache(c -> Duration.ofMillis(Long.MAX_VALUE), e -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return commands.flatMap(redis -> redis.get(keyPrefix + key))
+                .timeout(timeout)
+                .onErrorResume(e -> {
+                    log.debug("Shared cache read of {} failed: {}", key, e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration ttl) {
+        return commands.flatMap(redis -> redis.set(keyPrefix + key, value, SetArgs.Builder.px(ttl.toMillis())))
+                .timeout(timeout)
+                .onErrorResume(e -> {
+                    log.debug("Shared cache write of {} failed: {}", key, e.toString());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    @Override
+    public void close() {
+        StatefulRedisConnection<String, byte[]> open = connection;
+        if (open != null) {
+            open.close();
+        }
+        client.shutdown();
+    }
+}
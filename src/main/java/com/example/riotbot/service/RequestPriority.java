@@ -0,0 +1,74 @@
+package com.example.riotbot.service;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Scheduling priority of a Riot API call. Interactive requests (a user is
+ * waiting on a slash command) are always dispatched ahead of background work.
+ * The priority travels in the Reactor context; calls without one are treated
+ * as interactive.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    public Context asContext() {
+        return Context.of(RequestPriority.class, this);
+    }
+
+    /** Priority of calls made with this context, read at the time of the call. */
+    public static RequestPriority of(ContextView context) {
+        Object priority = context.getOrDefault(RequestPriority.class, INTERACTIVE);
+        return priority instanceof Shared shared ? shared.get() : (RequestPriority) priority;
+    }
+
+    /**
+     * Priority of a load several callers wait on (see {@link SingleFlight}):
+     * that of the most urgent caller so far, and of the load it runs within,
+     * if any. It only ever rises, and {@link RiotRateLimiter} reads it anew
+     * each time it picks the next request, so a background load an
+     * interactive caller joins moves ahead in the queue.
+     */
+    public static final class Shared {
+
+        private final Shared parent;
+        private volatile RequestPriority priority;
+
+        Shared(RequestPriority priority, Shared parent) {
+            this.priority = priority;
+            this.parent = parent;
+        }
+
+        /** The priority set in the context, as a {@code Shared} that does not change if it is not one. */
+        static Shared of(ContextView context) {
+            Shared shared = in(context);
+            return shared != null ? shared : new Shared(RequestPriority.of(context), null);
+        }
+
+        /** The shared priority of the load this context belongs to, or null if none. */
+        static Shared in(ContextView context) {
+            Object priority = context.getOrDefault(RequestPriority.class, INTERACTIVE);
+            return priority instanceof Shared shared ? shared : null;
+        }
+
+        public RequestPriority get() {
+            RequestPriority own = priority;
+            if (parent != null && own != INTERACTIVE) {
+                RequestPriority inherited = parent.get();
+                return inherited.compareTo(own) < 0 ? inherited : own;
+            }
+            return own;
+        }
+
+        synchronized void raise(RequestPriority to) {
+            if (to.compareTo(priority) < 0) {
+                priority = to;
+            }
+        }
+
+        Context asContext() {
+            return Context.of(RequestPriority.class, this);
+        }
+    }
+}
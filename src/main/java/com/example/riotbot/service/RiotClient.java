@@ -3,130 +3,367 @@ package com.example.riotbot.service;
 import com.example.riotbot.dto.AccountDto;
 import com.example.riotbot.dto.SummonerDto;
 import com.example.riotbot.dto.CurrentGameInfo;
-import com.example.riotbot.dto.MatchDto;
+import com.example.riotbot.dto.LeagueEntryDto;
+import com.example.riotbot.dto.MatchSummary;
+import com.example.riotbot.metrics.CacheMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
 @Service
 public class RiotClient {
 
-    private final WebClient webClient;
+    private final RiotHttpClients httpClients;
+    private final Platform defaultPlatform;
+    private final WorkSchedulers workSchedulers;
     private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
     private final String apiKey;
+    private final SingleFlightLruCache<String, MatchSummary> matchCache;
+    private final MatchSummaryParser matchParser;
+    private final JsonStringArrayParser arrayParser;
+    private final MatchStore matchStore;
+    private final CacheMetrics matchStoreMetrics;
+    private final StaleWhileRevalidateCache<String, AccountDto> accountCache;
+    private final StaleWhileRevalidateCache<String, SummonerDto> summonerCache;
+    private final StaleWhileRevalidateCache<String, List<LeagueEntryDto>> leagueCache;
+    private final StaleWhileRevalidateCache<String, java.util.Optional<CurrentGameInfo>> liveGameCache;
+    private final SharedCache sharedCache;
+    private final CacheMetrics sharedCacheMetrics;
+    private final Duration accountFresh;
+    private final Duration summonerFresh;
+    private final Duration leagueFresh;
+    private final Duration sharedMatchTtl;
 
-    private static final String AMERICAS_BASE_URL = "https://americas.api.riotgames.com";
-    private static final String NA1_BASE_URL = "https://na1.api.riotgames.com";
+    private static final String DDRAGON_HOST = "ddragon.leagueoflegends.com";
+    private static final int DDRAGON_DATA_MAX_BYTES = 16 * 1024 * 1024;
 
-    public RiotClient(WebClient.Builder webClientBuilder, @Value("${riot.api.key}") String apiKey,
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper) {
-        this.webClient = webClientBuilder.build();
+    public RiotClient(RiotHttpClients httpClients, @Value("${riot.api.key}") String apiKey,
+            com.fasterxml.jackson.databind.ObjectMapper objectMapper,
+            @Value("${riot.cache.match.max-size:2000}") int matchCacheSize,
+            MatchStore matchStore,
+            @Value("${riot.cache.lookup.max-size:10000}") int lookupCacheSize,
+            @Value("${riot.cache.account.fresh:24h}") Duration accountFresh,
+            @Value("${riot.cache.account.stale:30d}") Duration accountStale,
+            @Value("${riot.cache.summoner.fresh:1h}") Duration summonerFresh,
+            @Value("${riot.cache.summoner.stale:7d}") Duration summonerStale,
+            @Value("${riot.cache.league.fresh:10m}") Duration leagueFresh,
+            @Value("${riot.cache.league.stale:1d}") Duration leagueStale,
+            MeterRegistry meterRegistry,
+            @Value("${riot.default-platform:NA1}") Platform defaultPlatform, WorkSchedulers workSchedulers,
+            @Value("${riot.cache.live.fresh:90s}") Duration liveGameFresh,
+            SharedCache sharedCache,
+            @Value("${riot.shared-cache.match-ttl:7d}") Duration sharedMatchTtl) {
+        this.httpClients = httpClients;
+        this.defaultPlatform = defaultPlatform;
+        this.workSchedulers = workSchedulers;
         this.apiKey = apiKey;
         this.objectMapper = objectMapper;
+        this.matchCache = new SingleFlightLruCache<>(matchCacheSize, new CacheMetrics("match", meterRegistry));
+        this.matchStore = matchStore;
+        this.matchStoreMetrics = new CacheMetrics("match-store", meterRegistry);
+        this.matchParser = new MatchSummaryParser(objectMapper.getFactory());
+        this.arrayParser = new JsonStringArrayParser(objectMapper.getFactory());
+        this.accountCache = new StaleWhileRevalidateCache<>("account", lookupCacheSize, accountFresh, accountStale,
+                new CacheMetrics("account", meterRegistry));
+        this.summonerCache = new StaleWhileRevalidateCache<>("summoner", lookupCacheSize, summonerFresh,
+                summonerStale, new CacheMetrics("summoner", meterRegistry));
+        this.leagueCache = new StaleWhileRevalidateCache<>("league", lookupCacheSize, leagueFresh, leagueStale,
+                new CacheMetrics("league", meterRegistry));
+        // Live status goes stale within minutes, so it is never served past its freshness
+        this.liveGameCache = new StaleWhileRevalidateCache<>("live-game", lookupCacheSize, liveGameFresh,
+                liveGameFresh, new CacheMetrics("live-game", meterRegistry));
+        this.sharedCache = sharedCache;
+        this.sharedCacheMetrics = new CacheMetrics("shared", meterRegistry);
+        this.accountFresh = accountFresh;
+        this.summonerFresh = summonerFresh;
+        this.leagueFresh = leagueFresh;
+        this.sharedMatchTtl = sharedMatchTtl;
+    }
+
+    /** Platform used when neither the command nor the Riot ID names one. */
+    public Platform defaultPlatform() {
+        return defaultPlatform;
+    }
+
+    /**
+     * Starts a GET against a Riot routing host. The endpoint name keys the
+     * method-level rate limit bucket in {@link RiotRateLimiter}.
+     */
+    private WebClient.RequestHeadersSpec<?> riotGet(String endpoint, String host, String uriTemplate,
+            Object... uriVariables) {
+        return httpClients.forHost(host).get()
+                .uri(uriTemplate, uriVariables)
+                .attribute(RiotRateLimiter.ENDPOINT_ATTRIBUTE, endpoint)
+                .header("X-Riot-Token", apiKey);
+    }
+
+    /**
+     * Riot ID to account, resolved on the regional cluster of the platform.
+     * Cached stale-while-revalidate: Riot IDs rarely change, so a stale entry
+     * is served at once and refreshed in the background.
+     */
+    public Mono<AccountDto> getAccount(Platform platform, String gameName, String tagLine) {
+        return accountCache.get(riotIdKey(platform, gameName, tagLine),
+                key -> throughShared("account:" + key, accountFresh, AccountDto.class,
+                        fetchAccount(platform, gameName, tagLine)));
+    }
+
+    /**
+     * Riot IDs looked up recently, least recently used first, as
+     * "gameName#tagLine@PLATFORM".
+     */
+    public List<String> recentRiotIds() {
+        return accountCache.keys();
+    }
+
+    /** Loads or refreshes the account, summoner and rank of a Riot ID at background priority. */
+    public Mono<Void> warmLookups(Platform platform, String gameName, String tagLine) {
+        return getAccount(platform, gameName, tagLine)
+                .flatMap(account -> getSummoner(platform, account.puuid()))
+                .flatMapMany(summoner -> getLeagueEntries(platform, summoner.id()))
+                .then()
+                .contextWrite(RequestPriority.BACKGROUND.asContext());
+    }
+
+    private static String riotIdKey(Platform platform, String gameName, String tagLine) {
+        return (gameName + "#" + tagLine).toLowerCase(Locale.ROOT) + "@" + platform.name();
     }
 
-    public Mono<AccountDto> getAccount(String gameName, String tagLine) {
-        return webClient.get()
-                .uri(AMERICAS_BASE_URL + "/riot/account/v1/accounts/by-riot-id/{gameName}/{tagLine}", gameName, tagLine)
-                .header("X-Riot-Token", apiKey)
+    private Mono<AccountDto> fetchAccount(Platform platform, String gameName, String tagLine) {
+        return riotGet("account-v1.by-riot-id", platform.region().accountRegion().host(),
+                "/riot/account/v1/accounts/by-riot-id/{gameName}/{tagLine}", gameName, tagLine)
                 .retrieve()
                 .bodyToMono(AccountDto.class);
     }
 
-    public Mono<SummonerDto> getSummoner(String puuid) {
-        return webClient.get()
-                .uri(NA1_BASE_URL + "/lol/summoner/v4/summoners/by-puuid/{puuid}", puuid)
-                .header("X-Riot-Token", apiKey)
+    public Mono<SummonerDto> getSummoner(Platform platform, String puuid) {
+        return summonerCache.get(platform.name() + ":" + puuid,
+                key -> throughShared("summoner:" + key, summonerFresh, SummonerDto.class,
+                        fetchSummoner(platform, puuid)));
+    }
+
+    private Mono<SummonerDto> fetchSummoner(Platform platform, String puuid) {
+        return riotGet("summoner-v4.by-puuid", platform.host(), "/lol/summoner/v4/summoners/by-puuid/{puuid}", puuid)
                 .retrieve()
                 .bodyToMono(SummonerDto.class);
     }
 
-    public Mono<String> getSummonerJson(String puuid) {
-        return webClient.get()
-                .uri(NA1_BASE_URL + "/lol/summoner/v4/summoners/by-puuid/{puuid}", puuid)
-                .header("X-Riot-Token", apiKey)
+    public Mono<String> getSummonerJson(Platform platform, String puuid) {
+        return riotGet("summoner-v4.by-puuid", platform.host(), "/lol/summoner/v4/summoners/by-puuid/{puuid}", puuid)
                 .retrieve()
                 .bodyToMono(String.class);
     }
 
-    public Mono<CurrentGameInfo> getCurrentMatch(String summonerId) {
-        System.out.println("DEBUG - Calling Spectator V4 for Summoner ID: " + summonerId);
-        System.out.println(
-                "DEBUG - Target URL: " + NA1_BASE_URL + "/lol/spectator/v4/active-games/by-summoner/" + summonerId);
-        if (apiKey != null) {
-            System.out.println("DEBUG - API Key Length: " + apiKey.length());
-        }
-
-        return webClient.get()
-                .uri(NA1_BASE_URL + "/lol/spectator/v4/active-games/by-summoner/{summonerId}", summonerId)
-                .header("X-Riot-Token", apiKey)
+    public Mono<CurrentGameInfo> getCurrentMatch(Platform platform, String summonerId) {
+        return riotGet("spectator-v4.by-summoner", platform.host(),
+                "/lol/spectator/v4/active-games/by-summoner/{summonerId}", summonerId)
                 .header("User-Agent", "RiotBot/1.0")
                 .header("Accept", "application/json")
                 .retrieve()
                 .bodyToMono(CurrentGameInfo.class);
     }
 
-    public Mono<CurrentGameInfo> getCurrentMatchByPuuid(String puuid) {
-        return webClient.get()
-                .uri(NA1_BASE_URL + "/lol/spectator/v5/active-games/by-puuid/{puuid}", puuid)
-                .header("X-Riot-Token", apiKey)
+    public Mono<CurrentGameInfo> getCurrentMatchByPuuid(Platform platform, String puuid) {
+        return riotGet("spectator-v5.by-puuid", platform.host(), "/lol/spectator/v5/active-games/by-puuid/{puuid}",
+                puuid)
                 .retrieve()
                 .bodyToMono(CurrentGameInfo.class);
     }
 
-    public Mono<java.util.List<String>> getMatchIds(String puuid, int count) {
-        return webClient.get()
-                .uri(AMERICAS_BASE_URL + "/lol/match/v5/matches/by-puuid/{puuid}/ids?start=0&count={count}", puuid,
-                        count)
-                .header("X-Riot-Token", apiKey)
+    /**
+     * The player's current game, or empty if they are not in one. Answers
+     * (including "not in game") are cached for {@code riot.cache.live.fresh},
+     * which is how players polled by {@link HotPlayerPrewarmer} are answered
+     * without a request.
+     */
+    public Mono<java.util.Optional<CurrentGameInfo>> getLiveGame(Platform platform, String puuid) {
+        return liveGameCache.get(platform.name() + ":" + puuid, key -> getCurrentMatchByPuuid(platform, puuid)
+                .map(java.util.Optional::of)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .defaultIfEmpty(java.util.Optional.empty()));
+    }
+
+    public Mono<java.util.List<String>> getMatchIds(Platform platform, String puuid, int count) {
+        return parseMatchIds(riotGet("match-v5.ids-by-puuid", platform.region().host(),
+                "/lol/match/v5/matches/by-puuid/{puuid}/ids?start=0&count={count}", puuid, count));
+    }
+
+    /**
+     * Match IDs of games started at or after {@code startTimeSeconds} (epoch
+     * seconds), newest first.
+     */
+    public Mono<java.util.List<String>> getMatchIdsSince(Platform platform, String puuid, long startTimeSeconds,
+            int count) {
+        return parseMatchIds(riotGet("match-v5.ids-by-puuid", platform.region().host(),
+                "/lol/match/v5/matches/by-puuid/{puuid}/ids?startTime={startTime}&start=0&count={count}",
+                puuid, startTimeSeconds, count));
+    }
+
+    private Mono<java.util.List<String>> parseMatchIds(WebClient.RequestHeadersSpec<?> request) {
+        return request
+                .retrieve()
+                .bodyToMono(DataBuffer.class)
+                .map(body -> readBody(body, arrayParser::parseAll))
+                .defaultIfEmpty(java.util.List.of());
+    }
+
+    /** Parses a body straight from its (joined) buffer, which is released afterwards. */
+    private static <T> T readBody(DataBuffer body, BodyReader<T> reader) {
+        try (java.io.InputStream in = body.asInputStream(true)) {
+            return reader.read(in);
+        } catch (java.io.IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        }
+    }
+
+    /** Reads a response body as a stream; the stream is closed by the caller. */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(java.io.InputStream in) throws java.io.IOException;
+    }
+
+    /**
+     * Finished matches are immutable, so summaries are served from a bounded
+     * in-memory cache, then the on-disk {@link MatchStore}, then the
+     * {@link SharedCache} of all instances, and only then from match-v5.
+     * Concurrent lookups of the same matchId share one load. The regional
+     * cluster is taken from the platform prefix of the ID.
+     */
+    public Mono<MatchSummary> getMatchSummary(String matchId) {
+        return matchCache.get(matchId, id -> matchStore.find(id)
+                .doOnNext(match -> matchStoreMetrics.hit())
+                .switchIfEmpty(Mono.defer(() -> {
+                    matchStoreMetrics.miss();
+                    String sharedKey = "match:v" + MatchStore.FORMAT_VERSION + ":" + id;
+                    return sharedCache.get(sharedKey)
+                            .map(MatchSummary::fromBytes)
+                            // sharedCache.get never fails, so this only catches an unreadable entry
+                            .onErrorResume(e -> Mono.empty())
+                            .doOnNext(match -> sharedCacheMetrics.hit())
+                            .switchIfEmpty(Mono.defer(() -> {
+                                sharedCacheMetrics.miss();
+                                return fetchMatchSummary(id)
+                                        .doOnNext(match -> share(sharedKey, match.toBytes(), sharedMatchTtl));
+                            }))
+                            .flatMap(match -> matchStore.save(match).thenReturn(match));
+                })));
+    }
+
+    private Mono<MatchSummary> fetchMatchSummary(String matchId) {
+        Platform platform = Platform.fromMatchId(matchId).orElse(defaultPlatform);
+        return riotGet("match-v5.by-match-id", platform.region().host(), "/lol/match/v5/matches/{matchId}", matchId)
                 .retrieve()
-                .bodyToMono(String.class)
+                .bodyToMono(byte[].class)
+                // A full match is ~60 KB of JSON; parse it off the event loop
+                .publishOn(workSchedulers.cpu())
                 .map(json -> {
-                    // Manual parsing to ensure no brackets/quotes remain
-                    String clean = json.replace("[", "").replace("]", "").replace("\"", "").trim();
-                    if (clean.isEmpty()) {
-                        return new java.util.ArrayList<String>();
+                    try {
+                        return matchParser.parse(json);
+                    } catch (java.io.IOException e) {
+                        throw new java.io.UncheckedIOException("Failed to parse match " + matchId, e);
                     }
-                    return java.util.Arrays.asList(clean.split(","));
                 });
     }
 
-    public Mono<MatchDto> getMatchDetail(String matchId) {
-        return webClient.get()
-                .uri(AMERICAS_BASE_URL + "/lol/match/v5/matches/{matchId}", matchId)
-                .header("X-Riot-Token", apiKey)
-                .retrieve()
-                .bodyToMono(MatchDto.class);
+    /** Ranked entries of a summoner; rank changes a few times a day at most, so cached like accounts. */
+    public Flux<LeagueEntryDto> getLeagueEntries(Platform platform, String summonerId) {
+        return leagueCache.get(platform.name() + ":" + summonerId,
+                key -> throughShared("league:" + key, leagueFresh, objectMapper.getTypeFactory()
+                        .constructCollectionType(List.class, LeagueEntryDto.class),
+                        fetchLeagueEntries(platform, summonerId)))
+                .flatMapMany(Flux::fromIterable);
     }
 
-    public Flux<com.example.riotbot.dto.LeagueEntryDto> getLeagueEntries(String summonerId) {
-        System.out.println("DEBUG - Calling League V4 for Summoner ID: " + summonerId);
-        System.out.println("DEBUG - Target URL: " + NA1_BASE_URL + "/lol/league/v4/entries/by-summoner/" + summonerId);
-        if (apiKey != null) {
-            System.out.println("DEBUG - API Key Length: " + apiKey.length());
-        }
-
-        return webClient.get()
-                .uri(NA1_BASE_URL + "/lol/league/v4/entries/by-summoner/{summonerId}", summonerId)
-                .header("X-Riot-Token", apiKey)
+    private Mono<List<LeagueEntryDto>> fetchLeagueEntries(Platform platform, String summonerId) {
+        return riotGet("league-v4.entries-by-summoner", platform.host(),
+                "/lol/league/v4/entries/by-summoner/{summonerId}", summonerId)
                 .header("User-Agent", "RiotBot/1.0")
                 .header("Accept", "application/json")
                 .retrieve()
-                .bodyToFlux(com.example.riotbot.dto.LeagueEntryDto.class);
+                .bodyToFlux(LeagueEntryDto.class)
+                .collectList();
+    }
+
+    /**
+     * Loads through the shared cache: another instance's recent fetch is
+     * used as is, otherwise {@code fetch} runs and its result is shared.
+     * Entries live for the local freshness window from when they were
+     * shared, and the reader then treats the value as fresh for its own
+     * window, so it can be served up to about twice that window old.
+     */
+    private <T> Mono<T> throughShared(String key, Duration ttl, Class<T> type, Mono<T> fetch) {
+        return throughShared(key, ttl, objectMapper.constructType(type), fetch);
+    }
+
+    private <T> Mono<T> throughShared(String key, Duration ttl, com.fasterxml.jackson.databind.JavaType type,
+            Mono<T> fetch) {
+        return sharedCache.get(key)
+                .<T>handle((bytes, sink) -> {
+                    try {
+                        sink.next(objectMapper.readValue(bytes, type));
+                    } catch (java.io.IOException e) {
+                        // Written by an incompatible version; refetch and overwrite
+                        sink.complete();
+                    }
+                })
+                .doOnNext(value -> sharedCacheMetrics.hit())
+                .switchIfEmpty(Mono.defer(() -> {
+                    sharedCacheMetrics.miss();
+                    return fetch.doOnNext(value -> {
+                        try {
+                            share(key, objectMapper.writeValueAsBytes(value), ttl);
+                        } catch (java.io.IOException e) {
+                            // Not shareable; this instance still has it
+                        }
+                    });
+                }));
+    }
+
+    private void share(String key, byte[] value, Duration ttl) {
+        sharedCache.put(key, value, ttl).subscribe();
     }
 
     public Mono<String> getLatestDDragonVersion() {
-        return webClient.get()
-                .uri("https://ddragon.leagueoflegends.com/api/versions.json")
+        return httpClients.forHost(DDRAGON_HOST).get()
+                .uri("/api/versions.json")
+                .attribute(RiotRateLimiter.ENDPOINT_ATTRIBUTE, "ddragon.versions")
                 .retrieve()
-                .bodyToMono(String.class)
-                .map(json -> {
-                    // Quick parse: ["14.1.1", ...] -> 14.1.1
-                    // Remove brackets and quotes, split by comma, take first
-                    String clean = json.replace("[", "").replace("]", "").replace("\"", "").trim();
-                    return clean.split(",")[0];
-                });
+                .bodyToMono(DataBuffer.class)
+                // Newest first: ["15.24.1", ...]; the hundreds of older versions are never read
+                .mapNotNull(body -> readBody(body, arrayParser::parseFirst));
+    }
+
+    /**
+     * A Data Dragon data file ({@code champion.json}, {@code profileicon.json})
+     * of the given version and locale. Some are over a megabyte, beyond the
+     * codecs' in-memory limit, so the body is joined up to its own limit and
+     * handed to {@code reader} as a stream.
+     */
+    public <T> Mono<T> getDDragonData(String version, String locale, String file, BodyReader<T> reader) {
+        return DataBufferUtils.join(httpClients.forHost(DDRAGON_HOST).get()
+                        .uri("/cdn/{version}/data/{locale}/{file}", version, locale, file)
+                        .attribute(RiotRateLimiter.ENDPOINT_ATTRIBUTE, "ddragon.data")
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class), DDRAGON_DATA_MAX_BYTES)
+                .map(body -> readBody(body, reader));
+    }
+
+    /** An image from the Data Dragon CDN, by path below {@code /cdn/} (e.g. {@code 15.24.1/img/champion/Ahri.png}). */
+    public Mono<byte[]> getDDragonImage(String path) {
+        return httpClients.forHost(DDRAGON_HOST).get()
+                .uri(uriBuilder -> uriBuilder.path("/cdn/" + path).build())
+                .attribute(RiotRateLimiter.ENDPOINT_ATTRIBUTE, "ddragon.image")
+                .retrieve()
+                .bodyToMono(byte[].class);
     }
 }
@@ -0,0 +1,96 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.metrics.RiotApiMetrics;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link WebClient} per routing host, each on its own Reactor Netty
+ * connection pool. A region that stops answering can only exhaust its own
+ * connections and pending-acquire queue, never those of the other hosts.
+ *
+ * Connections are kept alive and negotiate HTTP/2 over ALPN, falling back to
+ * HTTP/1.1 where the host does not offer it. A response that has not started
+ * within {@code riot.http.response-timeout} fails the attempt, which
+ * {@link RiotResilience} then retries or counts against the endpoint.
+ */
+@Component
+public class RiotHttpClients {
+
+    private final WebClient.Builder webClientBuilder;
+    private final int maxConnections;
+    private final int pendingAcquireMax;
+    private final Duration pendingAcquireTimeout;
+    private final Duration maxIdleTime;
+    private final Duration maxLifeTime;
+    private final Duration connectTimeout;
+    private final Duration responseTimeout;
+    private final Map<String, WebClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, ConnectionProvider> pools = new ConcurrentHashMap<>();
+
+    public RiotHttpClients(WebClient.Builder webClientBuilder, RiotResilience resilience,
+            RiotRateLimiter rateLimiter, RiotApiMetrics apiMetrics,
+            @Value("${riot.http.max-connections:50}") int maxConnections,
+            @Value("${riot.http.pending-acquire-max:500}") int pendingAcquireMax,
+            @Value("${riot.http.pending-acquire-timeout:10s}") Duration pendingAcquireTimeout,
+            @Value("${riot.http.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${riot.http.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${riot.http.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${riot.http.response-timeout:5s}") Duration responseTimeout) {
+        // Retries and hedges go through the limiter like any other request. Metrics sit
+        // inside it so each attempt is timed without its queueing delay
+        this.webClientBuilder = webClientBuilder.filter(resilience).filter(rateLimiter).filter(apiMetrics);
+        this.maxConnections = maxConnections;
+        this.pendingAcquireMax = pendingAcquireMax;
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+        this.maxIdleTime = maxIdleTime;
+        this.maxLifeTime = maxLifeTime;
+        this.connectTimeout = connectTimeout;
+        this.responseTimeout = responseTimeout;
+    }
+
+    /** Client whose base URL is {@code https://host}. */
+    public WebClient forHost(String host) {
+        return clients.computeIfAbsent(host, this::create);
+    }
+
+    private WebClient create(String host) {
+        ConnectionProvider pool = pools.computeIfAbsent(host, h -> ConnectionProvider.builder("riot-" + h)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build());
+        HttpClient httpClient = HttpClient.create(pool)
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .secure()
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .compress(true);
+        return webClientBuilder.clone()
+                .baseUrl("https://" + host)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.values().forEach(ConnectionProvider::dispose);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.riotbot.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Central scheduler for every call to *.api.riotgames.com.
+ *
+ * Requests are queued per routing host and released only when both the
+ * application bucket of that host and the bucket of the called method have
+ * room. Limits start from {@code riot.ratelimit.app-limits} and are replaced
+ * by whatever Riot reports in {@code X-App-Rate-Limit} / {@code X-Method-Rate-Limit}.
+ * A 429 blocks the offending bucket for {@code Retry-After} seconds and the
+ * request is re-queued. Within a host, {@link RequestPriority#INTERACTIVE}
+ * requests are always released before background ones; the priority of a
+ * waiting request is read each time, so a shared load that an interactive
+ * caller joins moves up. Calls made under
+ * {@link LoadLevel#CACHED_ONLY} are refused outright.
+ */
+@Component
+public class RiotRateLimiter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(RiotRateLimiter.class);
+
+    /** Request attribute naming the Riot endpoint, used as the method-level bucket key. */
+    public static final String ENDPOINT_ATTRIBUTE = RiotRateLimiter.class.getName() + ".endpoint";
+
+    private static final String RIOT_API_HOST_SUFFIX = ".api.riotgames.com";
+    private static final long DEFAULT_RETRY_AFTER_MS = 1000;
+
+    private final String defaultAppLimits;
+    private final int maxRetries;
+    private final Map<String, HostQueue> hosts = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RiotRateLimiter(@Value("${riot.ratelimit.app-limits:20:1,100:120}") String defaultAppLimits,
+            @Value("${riot.ratelimit.max-retries:3}") int maxRetries) {
+        this.defaultAppLimits = defaultAppLimits;
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String host = request.url().getHost();
+        if (host == null || !host.endsWith(RIOT_API_HOST_SUFFIX)) {
+            return next.exchange(request);
+        }
+        String endpoint = request.attribute(ENDPOINT_ATTRIBUTE)
+                .map(Object::toString)
+                .orElse(request.url().getPath());
+        return Mono.deferContextual(ctx -> LoadLevel.of(ctx) == LoadLevel.CACHED_ONLY
+                ? Mono.error(new LoadLevel.CachedOnlyException())
+                : exchange(request, next, hostQueue(host), endpoint, RequestPriority.Shared.of(ctx), 0));
+    }
+
+    /** Number of requests currently waiting for a permit, across all hosts. */
+    public int queueDepth() {
+        int depth = 0;
+        for (HostQueue queue : hosts.values()) {
+            depth += queue.size();
+        }
+        return depth;
+    }
+
+    /**
+     * True when nothing is waiting for the host and its application limit is
+     * below {@code maxUsage} (0..1) in every window, i.e. background work
+     * sent now would not delay an interactive request. A host not called yet
+     * has its whole budget to spare.
+     */
+    public boolean hasSpareCapacity(String host, double maxUsage) {
+        HostQueue queue = hosts.get(host);
+        return queue == null || queue.hasSpareCapacity(maxUsage);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, HostQueue queue,
+            String endpoint, RequestPriority.Shared priority, int attempt) {
+        return queue.acquire(endpoint, priority)
+                .then(Mono.defer(() -> next.exchange(request)))
+                .flatMap(response -> {
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    queue.update(endpoint, headers);
+                    if (response.statusCode().value() != 429 || attempt >= maxRetries) {
+                        return Mono.just(response);
+                    }
+                    long retryAfterMs = parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER));
+                    String limitType = headers.getFirst("X-Rate-Limit-Type");
+                    log.warn("429 from {} {} (type={}, retry-after={}ms, attempt {})", queue.host, endpoint,
+                            limitType, retryAfterMs, attempt + 1);
+                    queue.block(endpoint, limitType, retryAfterMs);
+                    return response.releaseBody()
+                            .then(exchange(request, next, queue, endpoint, priority, attempt + 1));
+                });
+    }
+
+    private HostQueue hostQueue(String host) {
+        return hosts.computeIfAbsent(host, h -> new HostQueue(h, RateLimitBucket.parse(defaultAppLimits)));
+    }
+
+    private static long parseRetryAfter(String value) {
+        if (value == null) {
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+    }
+
+    private final class HostQueue {
+
+        private final String host;
+        private final RateLimitBucket appBucket;
+        private final Map<String, RateLimitBucket> methodBuckets = new HashMap<>();
+        private final Set<Pending> pending = new LinkedHashSet<>();
+        private long drainScheduledAt = Long.MAX_VALUE;
+
+        HostQueue(String host, RateLimitBucket appBucket) {
+            this.host = host;
+            this.appBucket = appBucket;
+        }
+
+        Mono<Void> acquire(String endpoint, RequestPriority.Shared priority) {
+            return Mono.create(sink -> {
+                Pending entry = new Pending(priority, sequence.incrementAndGet(), endpoint, sink);
+                synchronized (this) {
+                    pending.add(entry);
+                }
+                sink.onCancel(() -> {
+                    synchronized (this) {
+                        pending.remove(entry);
+                    }
+                });
+                drain();
+            });
+        }
+
+        synchronized int size() {
+            return pending.size();
+        }
+
+        synchronized boolean hasSpareCapacity(double maxUsage) {
+            return pending.isEmpty() && appBucket.usage(System.currentTimeMillis()) < maxUsage;
+        }
+
+        void update(String endpoint, HttpHeaders headers) {
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                appBucket.sync(headers.getFirst("X-App-Rate-Limit"), headers.getFirst("X-App-Rate-Limit-Count"),
+                        now);
+                methodBucket(endpoint).sync(headers.getFirst("X-Method-Rate-Limit"),
+                        headers.getFirst("X-Method-Rate-Limit-Count"), now);
+            }
+        }
+
+        void block(String endpoint, String limitType, long retryAfterMs) {
+            long until = System.currentTimeMillis() + retryAfterMs;
+            synchronized (this) {
+                if ("application".equalsIgnoreCase(limitType)) {
+                    appBucket.blockUntil(until);
+                } else {
+                    // "method", "service" or unknown: only this endpoint backs off
+                    methodBucket(endpoint).blockUntil(until);
+                }
+            }
+        }
+
+        private RateLimitBucket methodBucket(String endpoint) {
+            return methodBuckets.computeIfAbsent(endpoint, e -> RateLimitBucket.unlimited());
+        }
+
+        private void drain() {
+            List<MonoSink<Void>> released = new ArrayList<>();
+            long nextWait = Long.MAX_VALUE;
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                List<Pending> ordered = new ArrayList<>(pending);
+                // Priorities may have been raised since the entries were queued
+                ordered.sort(Comparator.comparing((Pending entry) -> entry.priority.get())
+                        .thenComparingLong(Pending::seq));
+                for (Pending entry : ordered) {
+                    RateLimitBucket method = methodBucket(entry.endpoint);
+                    long wait = Math.max(appBucket.waitMillis(now), method.waitMillis(now));
+                    if (wait == 0) {
+                        appBucket.consume(now);
+                        method.consume(now);
+                        pending.remove(entry);
+                        released.add(entry.sink);
+                    } else {
+                        nextWait = Math.min(nextWait, wait);
+                    }
+                }
+                if (nextWait != Long.MAX_VALUE) {
+                    long dueAt = now + nextWait;
+                    if (dueAt < drainScheduledAt) {
+                        drainScheduledAt = dueAt;
+                        Schedulers.parallel().schedule(() -> {
+                            synchronized (this) {
+                                drainScheduledAt = Long.MAX_VALUE;
+                            }
+                            drain();
+                        }, nextWait, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+            released.forEach(MonoSink::success);
+        }
+    }
+
+    private record Pending(RequestPriority.Shared priority, long seq, String endpoint, MonoSink<Void> sink) {
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.riotbot.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Per-endpoint failure handling for GETs to Riot and Data Dragon, applied
+ * outside {@link RiotRateLimiter} so every retry and hedge waits for its
+ * own permit. Endpoints are keyed by host and endpoint name, so one failing
+ * region does not affect the others.
+ *
+ * <ul>
+ * <li>Deadline: a call made with a {@link Deadline} in its context fails
+ * with a {@link TimeoutException} once the deadline passes, retries
+ * included, and its connection is released.</li>
+ * <li>Retry: 5xx answers and I/O failures (including the HTTP response
+ * timeout) are retried up to {@code max-retries} times after a jittered
+ * exponential backoff, unless that would overrun the deadline.</li>
+ * <li>Hedging: an interactive call still unanswered after the endpoint's
+ * recent p95 latency is sent a second time and the first answer wins.
+ * Hedges are capped at {@code hedge.max-ratio} of the endpoint's calls
+ * and only sent while the host has rate limit budget to spare.</li>
+ * <li>Circuit breaker: once {@code breaker.failure-rate} of the last
+ * {@code breaker.window} calls failed, calls fail fast with
+ * {@link CircuitOpenException} for {@code breaker.open-for}; then a single
+ * probe decides whether to close it again. The lookup caches answer such
+ * failures with data they would otherwise have discarded as too old.</li>
+ * </ul>
+ */
+@Component
+public class RiotResilience implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(RiotResilience.class);
+
+    private static final int LATENCY_SAMPLES = 128;
+    private static final int P95_RECOMPUTE_EVERY = 16;
+
+    private final RiotRateLimiter rateLimiter;
+    private final MeterRegistry registry;
+    private final int maxRetries;
+    private final long retryBackoffNanos;
+    private final boolean hedgeEnabled;
+    private final int hedgeMinSamples;
+    private final double hedgeMaxRatio;
+    private final long hedgeMinDelayNanos;
+    private final double hedgeMaxBudgetUsage;
+    private final int breakerWindow;
+    private final int breakerMinCalls;
+    private final double breakerFailureRate;
+    private final long breakerOpenForMillis;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public RiotResilience(MeterRegistry registry, RiotRateLimiter rateLimiter,
+            @Value("${riot.resilience.max-retries:2}") int maxRetries,
+            @Value("${riot.resilience.retry-backoff:200ms}") Duration retryBackoff,
+            @Value("${riot.resilience.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${riot.resilience.hedge.min-samples:20}") int hedgeMinSamples,
+            @Value("${riot.resilience.hedge.max-ratio:0.1}") double hedgeMaxRatio,
+            @Value("${riot.resilience.hedge.min-delay:50ms}") Duration hedgeMinDelay,
+            @Value("${riot.resilience.hedge.max-budget-usage:0.5}") double hedgeMaxBudgetUsage,
+            @Value("${riot.resilience.breaker.window:20}") int breakerWindow,
+            @Value("${riot.resilience.breaker.min-calls:10}") int breakerMinCalls,
+            @Value("${riot.resilience.breaker.failure-rate:0.5}") double breakerFailureRate,
+            @Value("${riot.resilience.breaker.open-for:30s}") Duration breakerOpenFor) {
+        this.registry = registry;
+        this.rateLimiter = rateLimiter;
+        this.maxRetries = maxRetries;
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinSamples = Math.max(1, Math.min(hedgeMinSamples, LATENCY_SAMPLES));
+        this.hedgeMaxRatio = hedgeMaxRatio;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        this.hedgeMaxBudgetUsage = hedgeMaxBudgetUsage;
+        this.breakerWindow = Math.max(1, breakerWindow);
+        this.breakerMinCalls = Math.max(1, Math.min(breakerMinCalls, this.breakerWindow));
+        this.breakerFailureRate = breakerFailureRate;
+        this.breakerOpenForMillis = breakerOpenFor.toMillis();
+        Gauge.builder("riot.circuit.open", this, RiotResilience::openCircuits)
+                .description("Riot endpoints whose circuit breaker is open or probing")
+                .register(registry);
+    }
+
+    /** A call refused without being sent because its endpoint keeps failing. */
+    public static class CircuitOpenException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException(String endpoint) {
+            super("Riot's " + endpoint + " service is failing right now. Please try again shortly.");
+        }
+    }
+
+    /**
+     * True if the error means Riot could not answer (breaker open, deadline
+     * passed, I/O failure or 5xx) rather than that it answered no, so data
+     * cached earlier is a better reply than the error.
+     */
+    public static boolean isUnavailable(Throwable e) {
+        return e instanceof CircuitOpenException
+                || e instanceof TimeoutException
+                || e instanceof WebClientRequestException
+                || e instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+        String endpointName = request.attribute(RiotRateLimiter.ENDPOINT_ATTRIBUTE)
+                .map(Object::toString)
+                .orElse(request.url().getPath());
+        String host = request.url().getHost();
+        Endpoint endpoint = endpoints.computeIfAbsent(host + " " + endpointName,
+                k -> new Endpoint(host, endpointName));
+        return Mono.deferContextual(ctx -> {
+            boolean interactive = RequestPriority.of(ctx) == RequestPriority.INTERACTIVE;
+            Duration remaining = Deadline.remaining(ctx);
+            if (remaining == null) {
+                return attempt(request, next, endpoint, interactive, Long.MAX_VALUE, 0);
+            }
+            if (remaining.isNegative() || remaining.isZero()) {
+                return Mono.error(deadlineExceeded(endpoint));
+            }
+            return attempt(request, next, endpoint, interactive, System.nanoTime() + remaining.toNanos(), 0)
+                    .timeout(remaining, Mono.error(() -> deadlineExceeded(endpoint)));
+        });
+    }
+
+    /** Endpoints currently failing fast or probing. */
+    public int openCircuits() {
+        int open = 0;
+        for (Endpoint endpoint : endpoints.values()) {
+            if (endpoint.isOpen()) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    private Mono<ClientResponse> attempt(ClientRequest request, ExchangeFunction next, Endpoint endpoint,
+            boolean interactive, long deadlineNanos, int retry) {
+        return hedged(request, next, endpoint, interactive)
+                .materialize()
+                .flatMap(signal -> {
+                    ClientResponse response = signal.get();
+                    boolean retryable = response != null
+                            ? response.statusCode().is5xxServerError()
+                            : signal.getThrowable() instanceof WebClientRequestException;
+                    Long backoff = retryable ? backoffNanos(retry, deadlineNanos) : null;
+                    if (backoff == null) {
+                        return response != null ? Mono.just(response) : Mono.error(signal.getThrowable());
+                    }
+                    log.debug("Retrying {} in {} ms after {} (attempt {})", endpoint.name, backoff / 1_000_000,
+                            response != null ? response.statusCode() : signal.getThrowable().toString(),
+                            retry + 1);
+                    event(endpoint, "retry");
+                    Mono<Void> released = response != null ? response.releaseBody() : Mono.empty();
+                    return released
+                            .then(Mono.delay(Duration.ofNanos(backoff)))
+                            .then(attempt(request, next, endpoint, interactive, deadlineNanos, retry + 1));
+                });
+    }
+
+    /** Full-jitter exponential backoff, or null if out of retries or time. */
+    private Long backoffNanos(int retry, long deadlineNanos) {
+        if (retry >= maxRetries) {
+            return null;
+        }
+        long backoff = (long) (retryBackoffNanos * (1L << retry) * ThreadLocalRandom.current().nextDouble(0.5, 1.5));
+        return System.nanoTime() + backoff < deadlineNanos ? backoff : null;
+    }
+
+    /**
+     * One call, plus a second copy once the first has taken longer than the
+     * endpoint's p95; the first response wins and the other is cancelled.
+     */
+    private Mono<ClientResponse> hedged(ClientRequest request, ExchangeFunction next, Endpoint endpoint,
+            boolean interactive) {
+        long delayNanos = hedgeEnabled && interactive ? endpoint.hedgeDelayNanos() : -1;
+        if (delayNanos < 0) {
+            return single(request, next, endpoint);
+        }
+        Mono<ClientResponse> hedge = Mono.delay(Duration.ofNanos(delayNanos))
+                .filter(tick -> rateLimiter.hasSpareCapacity(endpoint.host, hedgeMaxBudgetUsage)
+                        && endpoint.tryHedge())
+                .flatMap(tick -> {
+                    event(endpoint, "hedge");
+                    return single(request, next, endpoint)
+                            .doOnNext(response -> event(endpoint, "hedge-won"));
+                })
+                // The primary call decides the outcome; a failed hedge just did not help
+                .onErrorResume(e -> Mono.empty());
+        return Flux.merge(single(request, next, endpoint), hedge)
+                .next()
+                // Both answered at once: the loser still holds a connection
+                .doOnDiscard(ClientResponse.class, response -> response.releaseBody().subscribe());
+    }
+
+    /** One call through the endpoint's circuit breaker. */
+    private Mono<ClientResponse> single(ClientRequest request, ExchangeFunction next, Endpoint endpoint) {
+        return Mono.defer(() -> {
+            if (!endpoint.tryAcquire()) {
+                event(endpoint, "short-circuited");
+                return Mono.error(new CircuitOpenException(endpoint.name));
+            }
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        if (response.statusCode().is5xxServerError()) {
+                            failed(endpoint);
+                        } else {
+                            endpoint.succeeded(System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof WebClientRequestException) {
+                            failed(endpoint);
+                        } else {
+                            // Refused before reaching Riot (e.g. cached-only); says nothing about it
+                            endpoint.abandoned();
+                        }
+                    })
+                    .doOnCancel(endpoint::abandoned);
+        });
+    }
+
+    private void failed(Endpoint endpoint) {
+        if (endpoint.failed()) {
+            event(endpoint, "circuit-opened");
+            log.warn("Circuit for {} on {} opened for {} ms", endpoint.name, endpoint.host, breakerOpenForMillis);
+        }
+    }
+
+    private TimeoutException deadlineExceeded(Endpoint endpoint) {
+        event(endpoint, "deadline");
+        return new TimeoutException("Riot's " + endpoint.name + " service did not answer in time.");
+    }
+
+    private void event(Endpoint endpoint, String event) {
+        Counter.builder("riot.resilience.events")
+                .description("Retries, hedges, short-circuited calls and deadlines per Riot endpoint")
+                .tag("endpoint", endpoint.name)
+                .tag("event", event)
+                .register(registry)
+                .increment();
+    }
+
+    private enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /** Breaker and latency statistics of one endpoint on one host. */
+    private final class Endpoint {
+
+        private final String host;
+        private final String name;
+        // Breaker: outcomes of the last breakerWindow calls, true = failed
+        private final boolean[] outcomes = new boolean[breakerWindow];
+        private int recorded;
+        private int failures;
+        private int nextOutcome;
+        private State state = State.CLOSED;
+        private long openUntil;
+        private boolean probing;
+        // Latency of recent successful calls, and the p95 derived from them
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+        private int latencyCount;
+        private int nextLatency;
+        private long p95Nanos;
+        private long calls;
+        private long hedges;
+
+        Endpoint(String host, String name) {
+            this.host = host;
+            this.name = name;
+        }
+
+        synchronized boolean isOpen() {
+            return state != State.CLOSED;
+        }
+
+        /** True if a call may be sent; in half-open state only the single probe may. */
+        synchronized boolean tryAcquire() {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN && System.currentTimeMillis() >= openUntil) {
+                state = State.HALF_OPEN;
+                probing = false;
+            }
+            if (state == State.HALF_OPEN && !probing) {
+                probing = true;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void succeeded(long latencyNanos) {
+            latencies[nextLatency] = latencyNanos;
+            nextLatency = (nextLatency + 1) % LATENCY_SAMPLES;
+            latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+            if (latencyCount % P95_RECOMPUTE_EVERY == 0 || latencyCount == hedgeMinSamples) {
+                long[] sorted = Arrays.copyOf(latencies, latencyCount);
+                Arrays.sort(sorted);
+                p95Nanos = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+            }
+            if (state == State.HALF_OPEN) {
+                log.info("Circuit for {} on {} closed", name, host);
+                reset(State.CLOSED);
+                return;
+            }
+            record(false);
+        }
+
+        /** Records a failure; true if it opened the circuit. */
+        synchronized boolean failed() {
+            if (state == State.HALF_OPEN) {
+                reset(State.OPEN);
+                return true;
+            }
+            if (state == State.OPEN) {
+                // A call sent before the circuit opened
+                return false;
+            }
+            record(true);
+            if (recorded >= breakerMinCalls && failures >= breakerFailureRate * recorded) {
+                reset(State.OPEN);
+                return true;
+            }
+            return false;
+        }
+
+        /** The call ended without a verdict (cancelled, refused locally). */
+        synchronized void abandoned() {
+            if (state == State.HALF_OPEN) {
+                probing = false;
+            }
+        }
+
+        /** Delay before hedging a new call, or -1 if it should not be hedged. */
+        synchronized long hedgeDelayNanos() {
+            calls++;
+            if (state != State.CLOSED || latencyCount < hedgeMinSamples) {
+                return -1;
+            }
+            return Math.max(p95Nanos, hedgeMinDelayNanos);
+        }
+
+        synchronized boolean tryHedge() {
+            if (hedges >= hedgeMaxRatio * calls) {
+                return false;
+            }
+            hedges++;
+            return true;
+        }
+
+        private void record(boolean failed) {
+            if (recorded == outcomes.length) {
+                if (outcomes[nextOutcome]) {
+                    failures--;
+                }
+            } else {
+                recorded++;
+            }
+            outcomes[nextOutcome] = failed;
+            if (failed) {
+                failures++;
+            }
+            nextOutcome = (nextOutcome + 1) % outcomes.length;
+        }
+
+        private void reset(State to) {
+            state = to;
+            probing = false;
+            openUntil = to == State.OPEN ? System.currentTimeMillis() + breakerOpenForMillis : 0;
+            recorded = 0;
+            failures = 0;
+            nextOutcome = 0;
+            Arrays.fill(outcomes, false);
+        }
+    }
+}
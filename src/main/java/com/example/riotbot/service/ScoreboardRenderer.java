@@ -0,0 +1,285 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.metrics.CacheMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders the 10-player scoreboard of a live game to a PNG: both teams side
+ * by side, each player with champion icon, Riot ID, rank and recent win rate.
+ *
+ * Drawing and encoding run on {@link WorkSchedulers#cpu()}, never on an
+ * event loop, into canvases (image plus output buffer) taken from a small
+ * pool. Champion icons are decoded and scaled once into tiles kept per
+ * Data Dragon version. A finished image is cached by game ID together with
+ * the {@link Scoreboard} it was drawn from, and drawn again only when that
+ * input changes (a rank or win rate arrived).
+ */
+@Component
+public class ScoreboardRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreboardRenderer.class);
+
+    static final int WIDTH = 800;
+    static final int HEADER = 44;
+    static final int ROW = 56;
+    static final int TILE = 48;
+    static final int HEIGHT = HEADER + 5 * ROW + 8;
+    private static final int COLUMN = WIDTH / 2;
+
+    private static final Color BACKGROUND = new Color(0x1e1f22);
+    private static final Color HIGHLIGHT = new Color(0x3a3c42);
+    private static final Color BLUE = new Color(0x2f6fdb);
+    private static final Color RED = new Color(0xd13639);
+    private static final Color TEXT = new Color(0xf2f3f5);
+    private static final Color MUTED = new Color(0xa0a4ab);
+    private static final Color WIN = new Color(0x3ba55d);
+    private static final Color LOSS = new Color(0xed4245);
+    private static final Font TITLE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 18);
+    private static final Font NAME_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 15);
+    private static final Font DETAIL_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+
+    static {
+        // Encode in memory; ImageIO would otherwise buffer through temp files
+        ImageIO.setUseCache(false);
+    }
+
+    private final StaticDataService staticData;
+    private final WorkSchedulers workSchedulers;
+    private final SingleFlightLruCache<String, BufferedImage> tiles;
+    private final Map<Long, Rendered> rendered;
+    private final BlockingQueue<Canvas> canvases;
+    private final CacheMetrics metrics;
+    private final Timer renderTimer;
+
+    public ScoreboardRenderer(StaticDataService staticData, WorkSchedulers workSchedulers,
+            MeterRegistry meterRegistry,
+            @Value("${riot.scoreboard.cache-size:200}") int cacheSize,
+            @Value("${riot.scoreboard.canvases:4}") int canvases) {
+        this.staticData = staticData;
+        this.workSchedulers = workSchedulers;
+        this.tiles = new SingleFlightLruCache<>(400);
+        this.rendered = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Rendered> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.canvases = new ArrayBlockingQueue<>(Math.max(1, canvases));
+        this.metrics = new CacheMetrics("scoreboard", meterRegistry);
+        this.renderTimer = Timer.builder("bot.scoreboard.render")
+                .description("Drawing and PNG encoding of one scoreboard image")
+                .register(meterRegistry);
+    }
+
+    /** What a scoreboard shows; equal scoreboards render to the same image. */
+    public record Scoreboard(long gameId, String title, List<Row> rows) {
+    }
+
+    /**
+     * One player. {@code wins}/{@code losses} are of the recent games
+     * analyzed, and only shown if {@code analyzed}; {@code rank} may be null
+     * if unknown.
+     */
+    public record Row(long teamId, int championId, String riotId, String rank, int wins, int losses,
+            boolean analyzed, boolean highlighted) {
+    }
+
+    /** PNG bytes of the scoreboard, from the cache if this game was last drawn with the same input. */
+    public Mono<byte[]> render(Scoreboard board) {
+        return Mono.defer(() -> {
+            Rendered previous;
+            synchronized (rendered) {
+                previous = rendered.get(board.gameId());
+            }
+            if (previous != null && previous.board().equals(board)) {
+                metrics.hit();
+                return Mono.just(previous.png());
+            }
+            metrics.miss();
+            return Flux.fromIterable(board.rows())
+                    .map(Row::championId)
+                    .distinct()
+                    .flatMap(championId -> tile(championId).map(tile -> Map.entry(championId, tile)))
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                    .publishOn(workSchedulers.cpu())
+                    .map(icons -> draw(board, icons))
+                    .doOnNext(png -> {
+                        synchronized (rendered) {
+                            rendered.put(board.gameId(), new Rendered(board, png));
+                        }
+                    });
+        });
+    }
+
+    /** Champion icon decoded and scaled to {@link #TILE}; a blank tile if unknown or unavailable. */
+    private Mono<BufferedImage> tile(int championId) {
+        StaticDataService.Champion champion = staticData.champion(championId);
+        if (champion == null) {
+            return Mono.just(blankTile());
+        }
+        return tiles.get(staticData.version() + "/" + champion.id(), key -> staticData.championIcon(champion)
+                        .publishOn(workSchedulers.cpu())
+                        .map(ScoreboardRenderer::decodeTile))
+                .onErrorResume(e -> {
+                    log.debug("No icon for champion {}: {}", champion.id(), e.toString());
+                    return Mono.just(blankTile());
+                });
+    }
+
+    private static BufferedImage decodeTile(byte[] png) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+            if (source == null) {
+                throw new IOException("Unreadable icon");
+            }
+            BufferedImage tile = new BufferedImage(TILE, TILE, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = tile.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(source, 0, 0, TILE, TILE, null);
+            } finally {
+                g.dispose();
+            }
+            return tile;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BufferedImage blankTile() {
+        return BlankTile.INSTANCE;
+    }
+
+    /** Draws and encodes on the calling thread; package-private for the benchmark. */
+    byte[] draw(Scoreboard board, Map<Integer, BufferedImage> icons) {
+        long start = System.nanoTime();
+        Canvas canvas = canvases.poll();
+        if (canvas == null) {
+            canvas = new Canvas();
+        }
+        try {
+            Graphics2D g = canvas.image.createGraphics();
+            try {
+                paint(g, board, icons);
+            } finally {
+                g.dispose();
+            }
+            canvas.out.reset();
+            ImageIO.write(canvas.image, "png", canvas.out);
+            return canvas.out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            canvases.offer(canvas);
+            renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void paint(Graphics2D g, Scoreboard board, Map<Integer, BufferedImage> icons) {
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setFont(TITLE_FONT);
+        g.setColor(TEXT);
+        g.drawString(board.title(), 12, 28);
+
+        int blue = 0;
+        int red = 0;
+        for (Row row : board.rows()) {
+            boolean blueSide = row.teamId() == 100;
+            int x = blueSide ? 0 : COLUMN;
+            int y = HEADER + (blueSide ? blue++ : red++) * ROW;
+            if (blueSide ? blue > 5 : red > 5) {
+                continue;
+            }
+            if (row.highlighted()) {
+                g.setColor(HIGHLIGHT);
+                g.fillRect(x, y, COLUMN, ROW);
+            }
+            g.setColor(blueSide ? BLUE : RED);
+            g.fillRect(x, y + 4, 4, ROW - 8);
+            g.drawImage(icons.getOrDefault(row.championId(), blankTile()), x + 12, y + 4, null);
+
+            int textX = x + 12 + TILE + 10;
+            int textWidth = COLUMN - (textX - x) - 12;
+            g.setFont(NAME_FONT);
+            g.setColor(TEXT);
+            g.drawString(fit(g.getFontMetrics(), row.riotId(), textWidth), textX, y + 22);
+
+            g.setFont(DETAIL_FONT);
+            g.setColor(MUTED);
+            g.drawString(row.rank() != null ? row.rank() : "Rank unknown", textX, y + 42);
+            if (row.analyzed()) {
+                int games = row.wins() + row.losses();
+                String winRate = games == 0
+                        ? "No recent games"
+                        : Math.round(100.0 * row.wins() / games) + "% WR (" + row.wins() + "W " + row.losses() + "L)";
+                FontMetrics metrics = g.getFontMetrics();
+                g.setColor(games == 0 ? MUTED : row.wins() * 2 >= games ? WIN : LOSS);
+                g.drawString(winRate, x + COLUMN - 12 - metrics.stringWidth(winRate), y + 42);
+            }
+        }
+    }
+
+    /** The text, cut short with an ellipsis if wider than {@code width}. */
+    private static String fit(FontMetrics metrics, String text, int width) {
+        if (metrics.stringWidth(text) <= width) {
+            return text;
+        }
+        int end = text.length();
+        while (end > 0 && metrics.stringWidth(text.substring(0, end) + "…") > width) {
+            end--;
+        }
+        return text.substring(0, end) + "…";
+    }
+
+    private record Rendered(Scoreboard board, byte[] png) {
+    }
+
+    /** A reusable image and PNG output buffer; used by one render at a time. */
+    private static final class Canvas {
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    private static final class BlankTile {
+        static final BufferedImage INSTANCE = create();
+
+        private static BufferedImage create() {
+            BufferedImage tile = new BufferedImage(TILE, TILE, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = tile.createGraphics();
+            try {
+                g.setColor(new Color(0x2b2d31));
+                g.fillRect(0, 0, TILE, TILE);
+            } finally {
+                g.dispose();
+            }
+            return tile;
+        }
+    }
+}
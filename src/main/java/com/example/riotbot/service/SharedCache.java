@@ -0,0 +1,23 @@
+package com.example.riotbot.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Second-level cache for Riot data (matches, accounts, summoners, ranks)
+ * that several bot instances can share, so a lookup made by one instance
+ * saves the others the request. Sits behind the per-instance caches of
+ * {@link RiotClient}; values are opaque bytes.
+ *
+ * Implementations never fail a lookup: an unreachable backend answers
+ * empty and drops writes, and the caller falls back to Riot.
+ */
+public interface SharedCache {
+
+    /** The value, or empty if absent, expired or unavailable. */
+    Mono<byte[]> get(String key);
+
+    /** Stores the value for {@code ttl}; completes (without error) even if it could not be stored. */
+    Mono<Void> put(String key, byte[] value, Duration ttl);
+}
@@ -0,0 +1,49 @@
+package com.example.riotbot.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Concurrent loads of the same key share one request.
+ *
+ * The shared load does not run with the context of whichever caller started
+ * it. Its {@link RequestPriority} is that of the most urgent caller waiting
+ * on it, raised while it waits for the rate limiter when an interactive
+ * caller joins a background load. It runs without a {@link Deadline}: each
+ * caller stops waiting at its own deadline with a {@link TimeoutException},
+ * and the load carries on for the others and the cache.
+ */
+final class SingleFlight<K, V> {
+
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    Mono<V> load(K key, Function<K, Mono<V>> loader) {
+        return Mono.deferContextual(ctx -> {
+            RequestPriority priority = RequestPriority.of(ctx);
+            Flight<V> flight = inFlight.computeIfAbsent(key, k -> {
+                RequestPriority.Shared shared = new RequestPriority.Shared(priority,
+                        RequestPriority.Shared.in(ctx));
+                Mono<V> shareable = loader.apply(k)
+                        .doFinally(signal -> inFlight.remove(k))
+                        .contextWrite(c -> c.delete(Deadline.class).putAll(shared.asContext().readOnly()))
+                        .cache();
+                return new Flight<>(shareable, shared);
+            });
+            flight.priority().raise(priority);
+            Duration remaining = Deadline.remaining(ctx);
+            if (remaining == null) {
+                return flight.load();
+            }
+            return flight.load().timeout(remaining.isNegative() ? Duration.ZERO : remaining,
+                    Mono.error(() -> new TimeoutException("Gave up waiting at the command's deadline")));
+        });
+    }
+
+    private record Flight<V>(Mono<V> load, RequestPriority.Shared priority) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.metrics.CacheMetrics;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache for immutable values (e.g. finished matches).
+ * Entries never expire; the least recently used entry is evicted once the
+ * cache is full. Concurrent misses for the same key share one load (see
+ * {@link SingleFlight} for the priority and deadline it runs with), except
+ * under {@link LoadLevel#CACHED_ONLY}, whose loads may fail for want of
+ * Riot and so are never shared.
+ */
+public class SingleFlightLruCache<K, V> {
+
+    private final Map<K, V> entries;
+    private final SingleFlight<K, V> inFlight = new SingleFlight<>();
+    private final CacheMetrics metrics;
+
+    public SingleFlightLruCache(int maxSize) {
+        this(maxSize, CacheMetrics.NONE);
+    }
+
+    public SingleFlightLruCache(int maxSize, CacheMetrics metrics) {
+        this.metrics = metrics;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.deferContextual(ctx -> {
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                metrics.hit();
+                return Mono.just(cached);
+            }
+            metrics.miss();
+            if (LoadLevel.of(ctx) == LoadLevel.CACHED_ONLY) {
+                return loader.apply(key).doOnNext(value -> put(key, value));
+            }
+            return inFlight.load(key, k -> loader.apply(k).doOnNext(value -> put(k, value)));
+        });
+    }
+
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, value);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.metrics.CacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded cache for slowly changing lookups (Riot ID to PUUID, summoner, rank).
+ *
+ * <ul>
+ * <li>younger than {@code freshFor}: served as is;</li>
+ * <li>younger than {@code staleFor}: served immediately while one background
+ * refresh runs at {@link RequestPriority#BACKGROUND};</li>
+ * <li>older or missing: loaded before answering; if Riot is unavailable
+ * (see {@link RiotResilience#isUnavailable}) an expired entry is served
+ * rather than the error.</li>
+ * </ul>
+ * Concurrent loads of the same key share one request, which runs at the
+ * priority of its most urgent caller: a lookup that finds a background
+ * refresh in flight raises it rather than waiting behind it (see
+ * {@link SingleFlight}). Under {@link LoadLevel#CACHED_ONLY} stale entries
+ * are served without a refresh and a miss fails with
+ * {@link LoadLevel.CachedOnlyException}.
+ */
+public class StaleWhileRevalidateCache<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleWhileRevalidateCache.class);
+
+    private final String name;
+    private final long freshForMillis;
+    private final long staleForMillis;
+    private final Map<K, Entry<V>> entries;
+    private final SingleFlight<K, V> inFlight = new SingleFlight<>();
+    private final CacheMetrics metrics;
+
+    public StaleWhileRevalidateCache(String name, int maxSize, Duration freshFor, Duration staleFor) {
+        this(name, maxSize, freshFor, staleFor, CacheMetrics.NONE);
+    }
+
+    public StaleWhileRevalidateCache(String name, int maxSize, Duration freshFor, Duration staleFor,
+            CacheMetrics metrics) {
+        this.name = name;
+        this.metrics = metrics;
+        this.freshForMillis = freshFor.toMillis();
+        this.staleForMillis = Math.max(staleFor.toMillis(), freshForMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.deferContextual(ctx -> {
+            // Warm-ups are not user lookups, so they stay out of the hit ratio
+            CacheMetrics stats = RequestPriority.of(ctx) == RequestPriority.BACKGROUND
+                    ? CacheMetrics.NONE
+                    : this.metrics;
+            Entry<V> entry;
+            synchronized (entries) {
+                entry = entries.get(key);
+            }
+            long age = entry == null ? Long.MAX_VALUE : System.currentTimeMillis() - entry.loadedAt;
+            if (LoadLevel.of(ctx) == LoadLevel.CACHED_ONLY) {
+                if (entry == null) {
+                    stats.miss();
+                    return Mono.error(new LoadLevel.CachedOnlyException());
+                }
+                if (age < freshForMillis) {
+                    stats.hit();
+                } else {
+                    stats.staleHit();
+                }
+                return Mono.just(entry.value);
+            }
+            if (age < freshForMillis) {
+                stats.hit();
+                return Mono.just(entry.value);
+            }
+            if (age < staleForMillis) {
+                stats.staleHit();
+                load(key, loader)
+                        .contextWrite(RequestPriority.BACKGROUND.asContext())
+                        .subscribe(v -> {
+                        }, e -> log.debug("Background refresh of {} {} failed: {}", name, key, e.toString()));
+                return Mono.just(entry.value);
+            }
+            stats.miss();
+            if (entry == null) {
+                return load(key, loader);
+            }
+            Entry<V> expired = entry;
+            return load(key, loader).onErrorResume(RiotResilience::isUnavailable, e -> {
+                stats.fallback();
+                log.debug("Serving expired {} {}: {}", name, key, e.toString());
+                return Mono.just(expired.value);
+            });
+        });
+    }
+
+    /** Fetches the key in the background if it is missing or no longer fresh. */
+    public void refresh(K key, Function<K, Mono<V>> loader) {
+        get(key, loader)
+                .contextWrite(RequestPriority.BACKGROUND.asContext())
+                .subscribe(v -> {
+                }, e -> log.debug("Warm-up of {} {} failed: {}", name, key, e.toString()));
+    }
+
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            return entry == null ? null : entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+        }
+    }
+
+    /** Snapshot of the cached keys, least recently used first. */
+    public List<K> keys() {
+        synchronized (entries) {
+            return new ArrayList<>(entries.keySet());
+        }
+    }
+
+    private Mono<V> load(K key, Function<K, Mono<V>> loader) {
+        return inFlight.load(key, k -> loader.apply(k).doOnNext(value -> put(k, value)));
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
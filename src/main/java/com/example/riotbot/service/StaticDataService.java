@@ -0,0 +1,282 @@
+package com.example.riotbot.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Data Dragon static data: the current game version, champions and profile
+ * icons, with their asset URLs built once per version.
+ *
+ * The latest version is checked every {@code riot.static-data.refresh-interval}.
+ * On a rollover the champion and profile icon lists of the new version are
+ * loaded into a new immutable {@link StaticData} that replaces the old one in
+ * a single swap, so readers see one version or the other, never a mix. Until
+ * the first load (or if Data Dragon is down) the {@code initial-version}
+ * snapshot answers, building URLs from names. Reads never touch the network.
+ *
+ * Asset URLs point at {@code asset-base-url}, the Data Dragon CDN unless a
+ * mirror or local server is configured. Champion icons needed as images
+ * (rendered scoreboards) are fetched once and kept in a small in-memory cache.
+ */
+@Service
+public class StaticDataService {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticDataService.class);
+
+    private final RiotClient riotClient;
+    private final JsonFactory jsonFactory;
+    private final Duration refreshInterval;
+    private final String assetBaseUrl;
+    private final String locale;
+    private final AtomicReference<StaticData> current;
+    private final SingleFlightLruCache<String, byte[]> icons;
+    private Disposable ticker;
+
+    public StaticDataService(RiotClient riotClient, ObjectMapper objectMapper,
+            @Value("${riot.static-data.initial-version:15.24.1}") String initialVersion,
+            @Value("${riot.static-data.refresh-interval:1h}") Duration refreshInterval,
+            @Value("${riot.static-data.asset-base-url:https://ddragon.leagueoflegends.com/cdn}") String assetBaseUrl,
+            @Value("${riot.static-data.locale:en_US}") String locale,
+            @Value("${riot.static-data.icon-cache-size:300}") int iconCacheSize) {
+        this.riotClient = riotClient;
+        this.jsonFactory = objectMapper.getFactory();
+        this.refreshInterval = refreshInterval;
+        this.assetBaseUrl = assetBaseUrl.endsWith("/")
+                ? assetBaseUrl.substring(0, assetBaseUrl.length() - 1)
+                : assetBaseUrl;
+        this.locale = locale;
+        this.current = new AtomicReference<>(StaticData.empty(initialVersion, this.assetBaseUrl));
+        this.icons = new SingleFlightLruCache<>(iconCacheSize);
+    }
+
+    /** A champion: numeric key (spectator's championId), Data Dragon ID, display name, icon URL. */
+    public record Champion(int key, String id, String name, String iconUrl) {
+    }
+
+    /** One version's worth of static data; immutable. */
+    public record StaticData(String version, Map<String, Champion> championsByName,
+            Map<Integer, Champion> championsByKey, Map<Integer, String> profileIconUrls, String assetBaseUrl) {
+
+        static StaticData empty(String version, String assetBaseUrl) {
+            return new StaticData(version, Map.of(), Map.of(), Map.of(), assetBaseUrl);
+        }
+
+        /**
+         * Lookup by match-v5 {@code championName}, Data Dragon ID or display
+         * name: exact first, then by {@link #normalize normalized} name.
+         * Unknown names (a champion newer than this version) get an entry
+         * built from the name.
+         */
+        public Champion champion(String name) {
+            Champion champion = championsByName.get(name);
+            if (champion != null) {
+                return champion;
+            }
+            String normalized = normalize(name);
+            champion = championsByName.get(normalized);
+            if (champion != null) {
+                return champion;
+            }
+            String id = name.replaceAll("[^A-Za-z0-9]", "");
+            return new Champion(0, id, name, assetBaseUrl + "/" + version + "/img/champion/" + id + ".png");
+        }
+
+        public String profileIconUrl(int iconId) {
+            String url = profileIconUrls.get(iconId);
+            return url != null ? url : assetBaseUrl + "/" + version + "/img/profileicon/" + iconId + ".png";
+        }
+    }
+
+    public String version() {
+        return current.get().version();
+    }
+
+    public StaticData snapshot() {
+        return current.get();
+    }
+
+    public Champion champion(String name) {
+        return current.get().champion(name);
+    }
+
+    /** The champion with spectator/{@code championId} key, or null if this version does not know it. */
+    public Champion champion(int key) {
+        return current.get().championsByKey().get(key);
+    }
+
+    public String profileIconUrl(int iconId) {
+        return current.get().profileIconUrl(iconId);
+    }
+
+    /** PNG bytes of the champion's square icon, fetched once per version. */
+    public Mono<byte[]> championIcon(Champion champion) {
+        String version = current.get().version();
+        return icons.get(version + "/" + champion.id(),
+                key -> riotClient.getDDragonImage(version + "/img/champion/" + champion.id() + ".png"));
+    }
+
+    /**
+     * Lookup key used for champion names: lower-case letters and digits only,
+     * so "Kai'Sa", "KaiSa" and "kaisa" or "Dr. Mundo" and "DrMundo" meet.
+     */
+    static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ticker = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(t -> refresh(), 0)
+                .subscribe(null, e -> log.warn("Static data refresh stopped: {}", e.toString()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+    }
+
+    /** Loads the latest version if it is not the one loaded; keeps the current data on failure. */
+    private Mono<Void> refresh() {
+        StaticData loaded = current.get();
+        return riotClient.getLatestDDragonVersion()
+                .filter(version -> !version.equals(loaded.version()) || loaded.championsByKey().isEmpty())
+                .flatMap(this::load)
+                .doOnNext(data -> {
+                    current.set(data);
+                    log.info("Static data now at version {} ({} champions, {} profile icons)", data.version(),
+                            data.championsByKey().size(), data.profileIconUrls().size());
+                })
+                .onErrorResume(e -> {
+                    log.warn("Static data refresh failed, staying on {}: {}", loaded.version(), e.toString());
+                    return Mono.empty();
+                })
+                .contextWrite(RequestPriority.BACKGROUND.asContext())
+                .then();
+    }
+
+    private Mono<StaticData> load(String version) {
+        String base = assetBaseUrl + "/" + version;
+        return Mono.zip(
+                riotClient.getDDragonData(version, locale, "champion.json", in -> parseChampions(in, base)),
+                riotClient.getDDragonData(version, locale, "profileicon.json", in -> parseProfileIcons(in, base)))
+                .map(data -> {
+                    Map<String, Champion> byName = new HashMap<>();
+                    Map<Integer, Champion> byKey = new HashMap<>();
+                    for (Champion champion : data.getT1()) {
+                        byKey.put(champion.key(), champion);
+                        // Exact keys first so lookups of well-formed names need no normalizing
+                        byName.put(champion.id(), champion);
+                        byName.put(champion.name(), champion);
+                        byName.putIfAbsent(normalize(champion.id()), champion);
+                        byName.putIfAbsent(normalize(champion.name()), champion);
+                    }
+                    return new StaticData(version, Map.copyOf(byName), Map.copyOf(byKey), data.getT2(),
+                            assetBaseUrl);
+                });
+    }
+
+    /** champion.json: {@code {"data": {"Ahri": {"id": "Ahri", "key": "103", "name": "Ahri", ...}, ...}}}. */
+    private List<Champion> parseChampions(InputStream json, String base) throws IOException {
+        List<Champion> champions = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            forEachData(parser, () -> {
+                String id = null;
+                String name = null;
+                int key = 0;
+                String field;
+                while ((field = parser.nextFieldName()) != null) {
+                    parser.nextToken();
+                    switch (field) {
+                        case "id" -> id = parser.getValueAsString();
+                        case "name" -> name = parser.getValueAsString();
+                        case "key" -> key = parser.getValueAsInt();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (id != null) {
+                    champions.add(new Champion(key, id, name != null ? name : id,
+                            base + "/img/champion/" + id + ".png"));
+                }
+            });
+        }
+        return champions;
+    }
+
+    /** profileicon.json: {@code {"data": {"0": {"id": 0, ...}, ...}}}. */
+    private Map<Integer, String> parseProfileIcons(InputStream json, String base) throws IOException {
+        Map<Integer, String> urls = new HashMap<>();
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            forEachData(parser, () -> {
+                String field;
+                while ((field = parser.nextFieldName()) != null) {
+                    parser.nextToken();
+                    if (field.equals("id")) {
+                        int id = parser.getValueAsInt();
+                        urls.put(id, base + "/img/profileicon/" + id + ".png");
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            });
+        }
+        return Map.copyOf(urls);
+    }
+
+    /** Calls {@code entry} positioned on each object of the top-level "data" map. */
+    private static void forEachData(JsonParser parser, DataEntry entry) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a Data Dragon data object");
+        }
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            if (!field.equals("data")) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    entry.read();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface DataEntry {
+        void read() throws IOException;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.riotbot.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Locale;
+
+/**
+ * Where the scout pipeline runs work that must stay off the Netty event
+ * loops: blocking calls (match store reads and writes, files) and CPU-heavy
+ * stages (parsing match payloads).
+ *
+ * <ul>
+ * <li>{@code virtual} (default): both go to one bounded scheduler backed by
+ * Java 21 virtual threads, capped at {@code riot.execution.max-threads}
+ * concurrent tasks with up to {@code riot.execution.max-queued} waiting.</li>
+ * <li>{@code platform}: Reactor's shared bounded-elastic pool for blocking
+ * calls and the parallel pool for CPU work.</li>
+ * </ul>
+ */
+@Component
+public class WorkSchedulers {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkSchedulers.class);
+
+    private static final int TTL_SECONDS = 60;
+
+    public enum Mode {
+        VIRTUAL,
+        PLATFORM
+    }
+
+    private final Mode mode;
+    private final Scheduler blocking;
+    private final Scheduler cpu;
+
+    @Autowired
+    public WorkSchedulers(@Value("${riot.execution.mode:virtual}") String mode,
+            @Value("${riot.execution.max-threads:256}") int maxThreads,
+            @Value("${riot.execution.max-queued:100000}") int maxQueued) {
+        this(Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)), maxThreads, maxQueued);
+    }
+
+    public WorkSchedulers(Mode mode, int maxThreads, int maxQueued) {
+        this.mode = mode;
+        if (mode == Mode.VIRTUAL) {
+            this.blocking = Schedulers.newBoundedElastic(maxThreads, maxQueued,
+                    Thread.ofVirtual().name("scout-vt-", 0).factory(), TTL_SECONDS);
+            this.cpu = blocking;
+        } else {
+            this.blocking = Schedulers.boundedElastic();
+            this.cpu = Schedulers.parallel();
+        }
+        log.info("Scout work runs on {} threads", mode.name().toLowerCase(Locale.ROOT));
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /** For calls that block the calling thread (disk, files). */
+    public Scheduler blocking() {
+        return blocking;
+    }
+
+    /** For CPU-bound stages that would otherwise hold up an event loop. */
+    public Scheduler cpu() {
+        return cpu;
+    }
+
+    @PreDestroy
+    public void close() {
+        // The shared Reactor schedulers used in platform mode are not ours to dispose
+        if (mode == Mode.VIRTUAL) {
+            blocking.dispose();
+        }
+    }
+}
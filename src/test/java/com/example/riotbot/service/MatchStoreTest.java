@@ -0,0 +1,90 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.dto.MatchSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final WorkSchedulers workSchedulers = new WorkSchedulers(WorkSchedulers.Mode.PLATFORM, 4, 100);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private MatchStore store;
+
+    @AfterEach
+    void close() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void rollsToNewSegmentsAndDropsTheOldestWhenFull() {
+        int recordSize = 4 + match("EUW1_0").toBytes().length;
+        // Three matches per segment, at most two segments
+        store = open(DataSize.ofBytes(8 + 3L * recordSize), 2);
+
+        for (int i = 0; i < 7; i++) {
+            store.save(match("EUW1_" + i)).block(Duration.ofSeconds(2));
+        }
+
+        assertThat(find("EUW1_0")).isNull();
+        assertThat(find("EUW1_2")).isNull();
+        assertThat(find("EUW1_3").matchId()).isEqualTo("EUW1_3");
+        assertThat(find("EUW1_6").matchId()).isEqualTo("EUW1_6");
+        assertThat(store.size()).isEqualTo(4);
+        assertThat(registry.get("riot.store.evicted").counter().count()).isEqualTo(3);
+        assertThat(registry.get("riot.store.segments").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("riot.store.matches").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void reopensAllSegmentsAndKeepsAppendingToTheNewest() throws IOException {
+        int recordSize = 4 + match("EUW1_0").toBytes().length;
+        store = open(DataSize.ofBytes(8 + 2L * recordSize), 4);
+        for (int i = 0; i < 3; i++) {
+            store.save(match("EUW1_" + i)).block(Duration.ofSeconds(2));
+        }
+        store.close();
+
+        store = open(DataSize.ofBytes(8 + 2L * recordSize), 4);
+        store.save(match("EUW1_3")).block(Duration.ofSeconds(2));
+
+        assertThat(store.size()).isEqualTo(4);
+        assertThat(find("EUW1_0").matchId()).isEqualTo("EUW1_0");
+        assertThat(find("EUW1_3").matchId()).isEqualTo("EUW1_3");
+        assertThat(registry.get("riot.store.segments").gauge().value()).isEqualTo(2);
+    }
+
+    private MatchStore open(DataSize segmentSize, int maxSegments) {
+        registry.clear();
+        return new MatchStore(true, directory.toString(), segmentSize, maxSegments, workSchedulers, registry);
+    }
+
+    private MatchSummary find(String matchId) {
+        return store.find(matchId).block(Duration.ofSeconds(2));
+    }
+
+    private static MatchSummary match(String matchId) {
+        String[] puuids = new String[10];
+        String[] champions = new String[10];
+        int[] teams = new int[10];
+        for (int i = 0; i < 10; i++) {
+            puuids[i] = "puuid-" + i;
+            champions[i] = "Annie";
+            teams[i] = i < 5 ? 100 : 200;
+        }
+        int[] zeros = new int[10];
+        return new MatchSummary(matchId, 1_700_000_000_000L, 1800, "CLASSIC", puuids, teams, champions, zeros,
+                zeros, zeros, zeros, zeros, zeros, zeros, zeros, zeros, zeros, 0b11111L);
+    }
+}
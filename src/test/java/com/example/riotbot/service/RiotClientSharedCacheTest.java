@@ -0,0 +1,81 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.dto.AccountDto;
+import com.example.riotbot.metrics.RiotApiMetrics;
+import com.example.riotbot.service.StubRiotServer.Hit;
+import com.example.riotbot.service.StubRiotServer.Reply;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two {@link RiotClient}s standing for two bot instances, sharing an
+ * {@link InMemorySharedCache} in front of a stub Riot API.
+ */
+class RiotClientSharedCacheTest {
+
+    private final SharedCache sharedCache = new InMemorySharedCache(100);
+    private final WorkSchedulers workSchedulers = new WorkSchedulers(WorkSchedulers.Mode.PLATFORM, 4, 100);
+    private StubRiotServer stub;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = new StubRiotServer();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void localMissIsServedFromTheSharedCacheBeforeRiot() {
+        stub.reply(Reply.json("{\"puuid\":\"p1\",\"gameName\":\"Faker\",\"tagLine\":\"KR1\"}"));
+        stub.reply(Reply.json("{\"puuid\":\"p2\",\"gameName\":\"Caps\",\"tagLine\":\"EUW\"}"));
+        RiotClient first = client();
+        RiotClient second = client();
+
+        // Local miss, shared miss: Riot answers and the value is shared
+        assertThat(account(first, "Faker", "KR1").puuid()).isEqualTo("p1");
+        // Local miss on the other instance, shared hit
+        assertThat(account(second, "Faker", "KR1").puuid()).isEqualTo("p1");
+        // Local and shared miss: Riot again
+        assertThat(account(second, "Caps", "EUW").puuid()).isEqualTo("p2");
+
+        assertThat(stub.hits()).extracting(Hit::path).containsExactly(
+                "/riot/account/v1/accounts/by-riot-id/Faker/KR1", "/riot/account/v1/accounts/by-riot-id/Caps/EUW");
+    }
+
+    private static AccountDto account(RiotClient client, String gameName, String tagLine) {
+        return client.getAccount(Platform.EUW1, gameName, tagLine).block(Duration.ofSeconds(5));
+    }
+
+    private RiotClient client() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RiotRateLimiter limiter = new RiotRateLimiter("100:1", 3);
+        RiotResilience resilience = new RiotResilience(registry, limiter, 0, Duration.ofMillis(10), false, 1, 1.0,
+                Duration.ofMillis(50), 1.0, 20, 20, 0.5, Duration.ofMinutes(1));
+        RiotHttpClients httpClients = new RiotHttpClients(WebClient.builder(), resilience, limiter,
+                new RiotApiMetrics(registry, limiter), 10, 10, Duration.ofSeconds(1), Duration.ofSeconds(30),
+                Duration.ofMinutes(5), Duration.ofSeconds(1), Duration.ofSeconds(5)) {
+            @Override
+            public WebClient forHost(String host) {
+                return stub.client(host);
+            }
+        };
+        MatchStore matchStore = new MatchStore(false, "unused", DataSize.ofMegabytes(1), 1, workSchedulers,
+                registry);
+        Duration fresh = Duration.ofMinutes(10);
+        return new RiotClient(httpClients, "key", new ObjectMapper(), 10, matchStore, 10, fresh, fresh, fresh, fresh,
+                fresh, fresh, registry, Platform.EUW1, workSchedulers, fresh, sharedCache, fresh);
+    }
+}
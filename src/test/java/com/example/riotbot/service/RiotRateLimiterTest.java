@@ -0,0 +1,110 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.service.StubRiotServer.Hit;
+import com.example.riotbot.service.StubRiotServer.Reply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link RiotRateLimiter} against a local HTTP stub that answers with
+ * scripted statuses and rate limit headers. Requests are addressed to a
+ * riotgames.com host, which the limiter only applies to, and connected to
+ * the stub.
+ */
+class RiotRateLimiterTest {
+
+    private StubRiotServer stub;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = new StubRiotServer();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    private WebClient client(RiotRateLimiter limiter) {
+        return stub.client("euw1.api.riotgames.com", limiter);
+    }
+
+    private static Mono<Integer> get(WebClient client, String path) {
+        return client.get().uri(path)
+                .attribute(RiotRateLimiter.ENDPOINT_ATTRIBUTE, path)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+    }
+
+    @Test
+    void retriesAfter429OnceRetryAfterHasPassed() {
+        stub.reply(Reply.status(429, "Retry-After", "1", "X-Rate-Limit-Type", "method"));
+        WebClient client = client(new RiotRateLimiter("100:1", 3));
+
+        Integer status = get(client, "/summoner").block(Duration.ofSeconds(5));
+
+        assertThat(status).isEqualTo(200);
+        assertThat(stub.hits()).hasSize(2);
+        assertThat(stub.hits().get(1).at() - stub.hits().get(0).at()).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void methodBlockDoesNotHoldBackOtherEndpoints() {
+        stub.reply(Reply.status(429, "Retry-After", "2", "X-Rate-Limit-Type", "method"));
+        WebClient client = client(new RiotRateLimiter("100:1", 3));
+
+        Mono<Integer> blocked = get(client, "/blocked");
+        Mono<Integer> other = Mono.delay(Duration.ofMillis(200)).then(get(client, "/other"));
+        Flux.merge(blocked, other).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(stub.hits()).extracting(Hit::path).containsExactly("/blocked", "/other", "/blocked");
+    }
+
+    @Test
+    void givesUpAfterMaxRetries() {
+        for (int i = 0; i < 3; i++) {
+            stub.reply(Reply.status(429, "Retry-After", "0"));
+        }
+        WebClient client = client(new RiotRateLimiter("100:1", 2));
+
+        Integer status = get(client, "/summoner").block(Duration.ofSeconds(5));
+
+        assertThat(status).isEqualTo(429);
+        assertThat(stub.hits()).hasSize(3);
+    }
+
+    @Test
+    void interactiveRequestsGoFirst() {
+        WebClient client = client(new RiotRateLimiter("1:1", 3));
+
+        // The first request takes the only permit of this second; the others queue
+        Mono<Integer> first = get(client, "/first").contextWrite(RequestPriority.BACKGROUND.asContext());
+        Mono<Integer> background = Mono.delay(Duration.ofMillis(100))
+                .then(get(client, "/background"))
+                .contextWrite(RequestPriority.BACKGROUND.asContext());
+        Mono<Integer> interactive = Mono.delay(Duration.ofMillis(200)).then(get(client, "/interactive"));
+        Flux.merge(first, background, interactive).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(stub.hits()).extracting(Hit::path).containsExactly("/first", "/interactive", "/background");
+    }
+
+    @Test
+    void malformedHeadersKeepCurrentLimits() {
+        stub.reply(Reply.status(200, "X-App-Rate-Limit", "lots", "X-App-Rate-Limit-Count", "1:x",
+                "X-Method-Rate-Limit", "5", "X-Method-Rate-Limit-Count", ":"));
+        stub.reply(Reply.status(429, "Retry-After", "soon"));
+        WebClient client = client(new RiotRateLimiter("100:1", 3));
+
+        assertThat(get(client, "/summoner").block(Duration.ofSeconds(5))).isEqualTo(200);
+        assertThat(get(client, "/summoner").block(Duration.ofSeconds(5))).isEqualTo(200);
+        assertThat(stub.hits()).hasSize(3);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.riotbot.service;
+
+import com.example.riotbot.service.StubRiotServer.Reply;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link RiotResilience} against a local HTTP stub that injects faults:
+ * scripted 5xx answers and slow replies.
+ */
+class RiotResilienceTest {
+
+    private StubRiotServer stub;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = new StubRiotServer();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+    }
+
+    private RiotResilience resilience(int maxRetries, boolean hedge, int breakerWindow) {
+        return new RiotResilience(registry, new RiotRateLimiter("100:1", 3), maxRetries, Duration.ofMillis(10),
+                hedge, 1, 1.0, Duration.ofMillis(50), 1.0, breakerWindow, breakerWindow, 0.5, Duration.ofMinutes(1));
+    }
+
+    private WebClient client(RiotResilience resilience) {
+        return stub.client("127.0.0.1", resilience);
+    }
+
+    private static Mono<Integer> get(WebClient client) {
+        return client.get().uri("/match")
+                .attribute(RiotRateLimiter.ENDPOINT_ATTRIBUTE, "/match")
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+    }
+
+    private double events(String event) {
+        Counter counter = registry.find("riot.resilience.events").tag("event", event).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void retriesServerErrors() {
+        stub.reply(Reply.status(503));
+        stub.reply(Reply.status(500));
+        WebClient client = client(resilience(2, false, 20));
+
+        assertThat(get(client).block(Duration.ofSeconds(5))).isEqualTo(200);
+        assertThat(stub.hits()).hasSize(3);
+        assertThat(events("retry")).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        stub.reply(Reply.status(404));
+        WebClient client = client(resilience(2, false, 20));
+
+        assertThat(get(client).block(Duration.ofSeconds(5))).isEqualTo(404);
+        assertThat(stub.hits()).hasSize(1);
+    }
+
+    @Test
+    void hedgesSlowInteractiveCall() {
+        WebClient client = client(resilience(0, true, 20));
+        // One fast call gives the endpoint its p95; the hedge delay is then the 50ms minimum
+        get(client).block(Duration.ofSeconds(5));
+        stub.reply(Reply.slow(200, 2000));
+
+        long start = System.nanoTime();
+        assertThat(get(client).block(Duration.ofSeconds(5))).isEqualTo(200);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1000));
+        assertThat(stub.hits()).hasSize(3);
+        assertThat(events("hedge-won")).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotHedgeBackgroundCall() {
+        WebClient client = client(resilience(0, true, 20));
+        get(client).block(Duration.ofSeconds(5));
+        stub.reply(Reply.slow(200, 300));
+
+        get(client).contextWrite(RequestPriority.BACKGROUND.asContext()).block(Duration.ofSeconds(5));
+
+        assertThat(stub.hits()).hasSize(2);
+        assertThat(events("hedge")).isZero();
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailures() {
+        for (int i = 0; i < 4; i++) {
+            stub.reply(Reply.status(500));
+        }
+        WebClient client = client(resilience(0, false, 4));
+        for (int i = 0; i < 4; i++) {
+            assertThat(get(client).block(Duration.ofSeconds(5))).isEqualTo(500);
+        }
+
+        assertThatThrownBy(() -> get(client).block(Duration.ofSeconds(5)))
+                .isInstanceOf(RiotResilience.CircuitOpenException.class);
+        assertThat(stub.hits()).hasSize(4);
+        assertThat(events("short-circuited")).isEqualTo(1);
+    }
+
+    @Test
+    void failsAtTheDeadline() {
+        stub.reply(Reply.slow(200, 2000));
+        WebClient client = client(resilience(2, false, 20));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> get(client)
+                .contextWrite(new Deadline(Instant.now().plusMillis(200)).asContext())
+                .block(Duration.ofSeconds(5)))
+                .hasCauseInstanceOf(TimeoutException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1000));
+        assertThat(events("deadline")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.riotbot.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightLruCacheTest {
+
+    private final SingleFlightLruCache<String, String> cache = new SingleFlightLruCache<>(10);
+
+    @Test
+    void interactiveCallerRaisesPriorityOfBackgroundLoad() {
+        AtomicReference<RequestPriority> seenByLoad = new AtomicReference<>();
+        AtomicInteger loads = new AtomicInteger();
+        // The load reads its priority when it "reaches the rate limiter", after the join
+        Mono<String> load = Mono.delay(Duration.ofMillis(200))
+                .then(Mono.deferContextual(ctx -> {
+                    seenByLoad.set(RequestPriority.of(ctx));
+                    return Mono.just("match");
+                }));
+
+        cache.get("NA1_1", k -> {
+            loads.incrementAndGet();
+            return load;
+        }).contextWrite(RequestPriority.BACKGROUND.asContext()).subscribe();
+        String joined = Mono.delay(Duration.ofMillis(50))
+                .then(cache.get("NA1_1", k -> {
+                    loads.incrementAndGet();
+                    return load;
+                }))
+                .contextWrite(RequestPriority.INTERACTIVE.asContext())
+                .block(Duration.ofSeconds(2));
+
+        assertThat(joined).isEqualTo("match");
+        assertThat(loads).hasValue(1);
+        assertThat(seenByLoad).hasValue(RequestPriority.INTERACTIVE);
+    }
+
+    @Test
+    void backgroundJoinerLeavesPriorityAlone() {
+        AtomicReference<RequestPriority> seenByLoad = new AtomicReference<>();
+        Mono<String> load = Mono.delay(Duration.ofMillis(100))
+                .then(Mono.deferContextual(ctx -> {
+                    seenByLoad.set(RequestPriority.of(ctx));
+                    return Mono.just("match");
+                }));
+
+        cache.get("NA1_1", k -> load).contextWrite(RequestPriority.BACKGROUND.asContext()).subscribe();
+        cache.get("NA1_1", k -> load).contextWrite(RequestPriority.BACKGROUND.asContext())
+                .block(Duration.ofSeconds(2));
+
+        assertThat(seenByLoad).hasValue(RequestPriority.BACKGROUND);
+    }
+
+    @Test
+    void eachCallerWaitsUntilItsOwnDeadline() {
+        AtomicReference<Duration> deadlineSeenByLoad = new AtomicReference<>(Duration.ZERO);
+        Mono<String> load = Mono.deferContextual(ctx -> {
+            deadlineSeenByLoad.set(Deadline.remaining(ctx));
+            return Mono.delay(Duration.ofMillis(300)).thenReturn("match");
+        });
+
+        // The first caller is nearly out of time; its deadline must not cut the load short
+        StepVerifier.create(cache.get("NA1_1", k -> load)
+                        .contextWrite(new Deadline(Instant.now().plusMillis(50)).asContext()))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(2));
+        StepVerifier.create(cache.get("NA1_1", k -> load)
+                        .contextWrite(new Deadline(Instant.now().plusSeconds(5)).asContext()))
+                .expectNext("match")
+                .verifyComplete();
+
+        assertThat(deadlineSeenByLoad.get()).isNull();
+        assertThat(cache.getIfPresent("NA1_1")).isEqualTo("match");
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.riotbot.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.netty.resolver.AbstractAddressResolver;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Promise;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP server standing in for the Riot API: answers with scripted
+ * replies, then 200 with an empty body once the script runs out, and
+ * records every request. Clients address it by any host name, which is
+ * resolved to the loopback address.
+ */
+final class StubRiotServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService threads;
+    private final Queue<Reply> replies = new ConcurrentLinkedQueue<>();
+    private final List<Hit> hits = Collections.synchronizedList(new ArrayList<>());
+
+    /** A scripted answer; {@code headers} are name, value pairs. */
+    record Reply(int status, long delayMillis, String body, String... headers) {
+
+        static Reply status(int status, String... headers) {
+            return new Reply(status, 0, null, headers);
+        }
+
+        static Reply slow(int status, long delayMillis) {
+            return new Reply(status, delayMillis, null);
+        }
+
+        static Reply json(String body) {
+            return new Reply(200, 0, body, "Content-Type", "application/json");
+        }
+    }
+
+    record Hit(String path, long at) {
+    }
+
+    StubRiotServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::answer);
+        // Slow replies must not hold up the others
+        threads = Executors.newCachedThreadPool();
+        server.setExecutor(threads);
+        server.start();
+    }
+
+    void reply(Reply reply) {
+        replies.add(reply);
+    }
+
+    List<Hit> hits() {
+        return hits;
+    }
+
+    /** Client for {@code http://host:port} of this stub, with the given filters. */
+    WebClient client(String host, ExchangeFilterFunction... filters) {
+        HttpClient httpClient = HttpClient.create().resolver(LoopbackResolver.INSTANCE);
+        WebClient.Builder builder = WebClient.builder()
+                .baseUrl("http://" + host + ":" + server.getAddress().getPort())
+                .clientConnector(new ReactorClientHttpConnector(httpClient));
+        for (ExchangeFilterFunction filter : filters) {
+            builder.filter(filter);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        threads.shutdownNow();
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        hits.add(new Hit(exchange.getRequestURI().getPath(), System.currentTimeMillis()));
+        Reply reply = replies.poll();
+        if (reply == null) {
+            reply = Reply.status(200);
+        }
+        try {
+            Thread.sleep(reply.delayMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int i = 0; i < reply.headers().length; i += 2) {
+            exchange.getResponseHeaders().add(reply.headers()[i], reply.headers()[i + 1]);
+        }
+        if (reply.body() == null) {
+            exchange.sendResponseHeaders(reply.status(), -1);
+        } else {
+            byte[] body = reply.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(reply.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    /** Resolves every host to the loopback address, where the stub listens. */
+    private static final class LoopbackResolver extends AddressResolverGroup<InetSocketAddress> {
+
+        static final LoopbackResolver INSTANCE = new LoopbackResolver();
+
+        @Override
+        protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+            return new AbstractAddressResolver<>(executor) {
+                @Override
+                protected boolean doIsResolved(InetSocketAddress address) {
+                    return !address.isUnresolved();
+                }
+
+                @Override
+                protected void doResolve(InetSocketAddress address, Promise<InetSocketAddress> promise) {
+                    promise.setSuccess(new InetSocketAddress(InetAddress.getLoopbackAddress(), address.getPort()));
+                }
+
+                @Override
+                protected void doResolveAll(InetSocketAddress address, Promise<List<InetSocketAddress>> promise) {
+                    promise.setSuccess(List.of(
+                            new InetSocketAddress(InetAddress.getLoopbackAddress(), address.getPort())));
+                }
+            };
+        }
+    }
+}